@@ -0,0 +1,82 @@
+package org.example.construconectaapinosql.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.example.construconectaapinosql.cache.CollectionVersions;
+import org.example.construconectaapinosql.config.PaginationSettings;
+import org.example.construconectaapinosql.exception.AlreadyExistsException;
+import org.example.construconectaapinosql.model.Administrador;
+import org.example.construconectaapinosql.security.PasswordHasher;
+import org.example.construconectaapinosql.service.AdministradorService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validação, hash da senha e gravação de administrador pelo {@link AdministradorService}, no caminho feliz
+ * e no de usuário duplicado (erro do índice único traduzido para a mensagem da API).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdminSaveBenchmark {
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private AdministradorService service;
+    private long sequence;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        service = new AdministradorService(
+                MongoStandIns.administradorRepository(Set.of("existente"), Set.of("existente@admin.com")),
+                new PaginationSettings(100, 1000),
+                // Custo mínimo do bcrypt: com o custo de produção o hash esconderia todo o resto da medida
+                new PasswordHasher(4, 1, 64, new SimpleMeterRegistry()),
+                new CollectionVersions(),
+                new SimpleMeterRegistry());
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    private static Administrador admin(String usuario, String email) {
+        Administrador adm = new Administrador();
+        adm.setUsuario(usuario);
+        adm.setEmail(email);
+        adm.setSenha("admin123");
+        return adm;
+    }
+
+    @Benchmark
+    public Administrador saveNew(Blackhole blackhole) {
+        long n = sequence++;
+        Administrador adm = admin("Admin" + n, "admin" + n + "@admin.com");
+        Set<ConstraintViolation<Administrador>> violations = validator.validate(adm);
+        blackhole.consume(violations);
+        return service.saveAdmins(adm);
+    }
+
+    @Benchmark
+    public String saveDuplicate(Blackhole blackhole) {
+        Administrador adm = admin(" Existente ", "novo@admin.com");
+        blackhole.consume(validator.validate(adm));
+        try {
+            service.saveAdmins(adm);
+            return null;
+        } catch (AlreadyExistsException e) {
+            return e.getMessage();
+        }
+    }
+}
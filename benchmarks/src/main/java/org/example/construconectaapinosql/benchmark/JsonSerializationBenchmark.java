@@ -0,0 +1,75 @@
+package org.example.construconectaapinosql.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.bson.types.ObjectId;
+import org.example.construconectaapinosql.model.Administrador;
+import org.example.construconectaapinosql.model.Desconto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização das listas devolvidas por /discounts e /admin/admins, com o ObjectMapper
+ * configurado como o do Spring Boot (módulos java.time, sem datas como timestamp).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    @Param({"10", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private ObjectReader voucherListReader;
+    private List<Desconto> vouchers;
+    private List<Administrador> admins;
+    private byte[] vouchersJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        voucherListReader = objectMapper.readerForListOf(Desconto.class);
+        vouchers = new ArrayList<>(size);
+        admins = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Desconto voucher = new Desconto();
+            voucher.setId(new ObjectId());
+            voucher.setCupom("CUPOM" + i);
+            voucher.setValorDesconto(5.0 + i % 45);
+            voucher.setMaxUsos(100);
+            voucher.setExpiraEm(Instant.parse("2030-12-31T23:59:59Z"));
+            vouchers.add(voucher);
+
+            Administrador adm = new Administrador();
+            adm.setUsuario("admin" + i);
+            adm.setEmail("admin" + i + "@admin.com");
+            admins.add(adm);
+        }
+        vouchersJson = objectMapper.writeValueAsBytes(vouchers);
+    }
+
+    @Benchmark
+    public byte[] writeVouchers() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(vouchers);
+    }
+
+    @Benchmark
+    public byte[] writeAdmins() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(admins);
+    }
+
+    @Benchmark
+    public List<Desconto> readVouchers() throws IOException {
+        return voucherListReader.readValue(vouchersJson);
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.construconectaapinosql.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.example.construconectaapinosql.cache.CollectionVersions;
+import org.example.construconectaapinosql.cache.VoucherBloomFilter;
+import org.example.construconectaapinosql.cache.VoucherCache;
+import org.example.construconectaapinosql.config.PaginationSettings;
+import org.example.construconectaapinosql.security.PasswordHasher;
+import org.example.construconectaapinosql.service.AdministradorService;
+import org.example.construconectaapinosql.service.DescontoService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho de "não encontrado" dos services: a exceção lançada e capturada numa busca por id inexistente
+ * e numa exclusão de cupom inexistente. {@code stackDepth} empilha chamadas antes da busca, como os
+ * quadros do Tomcat, dos filtros e dos proxies do Spring numa requisição real: o custo de montar o stack trace
+ * cresce com essa profundidade.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MissPathBenchmark {
+    @Param({"0", "150"})
+    private int stackDepth;
+
+    private DescontoService descontoService;
+    private AdministradorService administradorService;
+    private final ObjectId missingId = new ObjectId();
+
+    @Setup
+    public void setUp() {
+        PaginationSettings pagination = new PaginationSettings(100, 1000);
+        VoucherBloomFilter bloomFilter = new VoucherBloomFilter(MongoStandIns.descontoRepository(new HashMap<>()),
+                new SimpleMeterRegistry(), true, 100_000, 0.01);
+        bloomFilter.rebuild();
+        descontoService = new DescontoService(MongoStandIns.descontoRepository(new HashMap<>()),
+                new VoucherCache(1000), bloomFilter, pagination, new CollectionVersions(), new SimpleMeterRegistry(), 100);
+        administradorService = new AdministradorService(MongoStandIns.administradorRepository(Set.of(), Set.of()),
+                pagination, new PasswordHasher(4, 1, 64, new SimpleMeterRegistry()), new CollectionVersions(),
+                new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public String voucherByIdMiss() {
+        return nested(stackDepth, () -> descontoService.findVouchersById(missingId));
+    }
+
+    @Benchmark
+    public String adminByIdMiss() {
+        return nested(stackDepth, () -> administradorService.findAdminsById(missingId));
+    }
+
+    @Benchmark
+    public String deleteVoucherMiss() {
+        return nested(stackDepth, () -> descontoService.deleteVoucherByVoucherName("INEXISTENTE", null));
+    }
+
+    private static String nested(int depth, Runnable lookup) {
+        if (depth > 0) {
+            return nested(depth - 1, lookup);
+        }
+        try {
+            lookup.run();
+            return null;
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+}
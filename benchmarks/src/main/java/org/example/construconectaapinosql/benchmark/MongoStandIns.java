@@ -0,0 +1,63 @@
+package org.example.construconectaapinosql.benchmark;
+
+import org.example.construconectaapinosql.model.Administrador;
+import org.example.construconectaapinosql.model.Desconto;
+import org.example.construconectaapinosql.repository.AdministradorRepository;
+import org.example.construconectaapinosql.repository.DescontoRepository;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Repositórios em memória no lugar do MongoDB, para medir só o código da aplicação.
+ * Os mocks são stubOnly: não guardam o histórico de chamadas, senão a memória cresceria durante a medição.
+ */
+final class MongoStandIns {
+    private MongoStandIns() {
+    }
+
+    static DescontoRepository descontoRepository(Map<String, Desconto> byCupomKey) {
+        DescontoRepository repository = mock(DescontoRepository.class, withSettings().stubOnly());
+        // Copia como o driver faria: cada leitura devolve um objeto novo
+        when(repository.findByCupomKey(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(byCupomKey.get(invocation.<String>getArgument(0))).map(Desconto::new));
+        when(repository.findByCupomKeyIn(anyCollection())).thenAnswer(invocation -> invocation.<Collection<String>>getArgument(0)
+                .stream().map(byCupomKey::get).filter(Objects::nonNull).map(Desconto::new).toList());
+        when(repository.insert(any(Desconto.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.estimatedCount()).thenAnswer(invocation -> (long) byCupomKey.size());
+        doAnswer(invocation -> {
+            byCupomKey.keySet().forEach(invocation.<Consumer<String>>getArgument(0));
+            return null;
+        }).when(repository).streamCupomKeys(any());
+        return repository;
+    }
+
+    // Simula os índices únicos: usuários ou e-mails já existentes fazem o insert falhar com chave duplicada
+    static AdministradorRepository administradorRepository(Set<String> usuarioKeys, Set<String> emailKeys) {
+        AdministradorRepository repository = mock(AdministradorRepository.class, withSettings().stubOnly());
+        when(repository.insert(any(Administrador.class))).thenAnswer(invocation -> {
+            Administrador adm = invocation.getArgument(0);
+            if (emailKeys.contains(adm.getEmailKey())) {
+                throw new DuplicateKeyException("E11000 duplicate key error index: email_key");
+            }
+            if (usuarioKeys.contains(adm.getUsuarioKey())) {
+                throw new DuplicateKeyException("E11000 duplicate key error index: usuario_key");
+            }
+            return adm;
+        });
+        return repository;
+    }
+}
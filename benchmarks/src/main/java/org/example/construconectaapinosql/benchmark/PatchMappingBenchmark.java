@@ -0,0 +1,109 @@
+package org.example.construconectaapinosql.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.types.ObjectId;
+import org.example.construconectaapinosql.controller.AdministradorController;
+import org.example.construconectaapinosql.controller.DescontoController;
+import org.example.construconectaapinosql.dto.AdministradorUpdate;
+import org.example.construconectaapinosql.dto.DescontoUpdate;
+import org.example.construconectaapinosql.model.Administrador;
+import org.example.construconectaapinosql.model.Desconto;
+import org.example.construconectaapinosql.service.AdministradorService;
+import org.example.construconectaapinosql.service.AuthService;
+import org.example.construconectaapinosql.service.DescontoBulkService;
+import org.example.construconectaapinosql.service.DescontoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Endpoints PATCH chamados direto nos controllers: conversão do corpo no update tipado, validação
+ * e montagem da resposta, sem If-Match. Os services são stand-ins, então só o trabalho do controller é medido.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PatchMappingBenchmark {
+    private static final String VOUCHER_ID = new ObjectId().toHexString();
+    private static final String ADMIN_ID = new ObjectId().toHexString();
+
+    private LocalValidatorFactoryBean validator;
+    private DescontoController descontoController;
+    private AdministradorController administradorController;
+
+    private final Map<String, Object> voucherByIdUpdates = Map.of("cupom", "NOVO15", "valorDesconto", 15.0);
+    private final Map<String, Object> voucherByCupomUpdates = Map.of("cupom", "NOVO15", "valorDesconto", 15);
+    private final Map<String, Object> adminUpdates = Map.of("usuario", "novoAdmin", "email", "novo@admin.com");
+
+    @Setup
+    public void setUp() {
+        validator = new LocalValidatorFactoryBean();
+        validator.afterPropertiesSet();
+
+        DescontoService descontoService = mock(DescontoService.class, withSettings().stubOnly());
+        when(descontoService.updateVoucher(any(ObjectId.class), any(), any(DescontoUpdate.class))).thenAnswer(invocation -> voucher());
+        when(descontoService.updateVoucherByCupom(anyString(), any(), any(DescontoUpdate.class))).thenAnswer(invocation -> voucher());
+        descontoController = new DescontoController(descontoService, mock(DescontoBulkService.class, withSettings().stubOnly()),
+                validator, new ObjectMapper());
+
+        AdministradorService administradorService = mock(AdministradorService.class, withSettings().stubOnly());
+        when(administradorService.updateAdmin(any(ObjectId.class), any(), any(AdministradorUpdate.class))).thenAnswer(invocation -> admin());
+        when(administradorService.updateAdminByUsuario(anyString(), any(), any(AdministradorUpdate.class))).thenAnswer(invocation -> admin());
+        administradorController = new AdministradorController(administradorService, mock(AuthService.class, withSettings().stubOnly()),
+                validator, new ObjectMapper());
+    }
+
+    @TearDown
+    public void tearDown() {
+        validator.close();
+    }
+
+    private static Desconto voucher() {
+        Desconto voucher = new Desconto();
+        voucher.setId(new ObjectId(VOUCHER_ID));
+        voucher.setCupom("VAIDE10");
+        voucher.setValorDesconto(10.0);
+        return voucher;
+    }
+
+    private static Administrador admin() {
+        Administrador adm = new Administrador();
+        adm.setId(new ObjectId(ADMIN_ID));
+        adm.setUsuario("admin");
+        adm.setEmail("admin@admin.com");
+        adm.setSenha("admin123");
+        return adm;
+    }
+
+    @Benchmark
+    public ResponseEntity<?> updateVoucherById() {
+        return descontoController.updateVoucherById(VOUCHER_ID, voucherByIdUpdates, null);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> updateVoucherByCupom() {
+        return descontoController.updateVoucherByCupom("vaide10", voucherByCupomUpdates, null);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> updateAdminById() {
+        return administradorController.updateAdminById(ADMIN_ID, adminUpdates, null);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> updateAdminByUser() {
+        return administradorController.updateAdminByUser("admin", adminUpdates, null);
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.construconectaapinosql.benchmark;
+
+import org.example.construconectaapinosql.ratelimit.GcraRateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do {@link GcraRateLimiter} por requisição, que roda em toda chamada das rotas limitadas:
+ * um cliente só disputado por várias threads, muitos clientes distintos e o caminho de recusa.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimiterBenchmark {
+    @Param({"10000"})
+    private int clients;
+
+    private GcraRateLimiter permissive;
+    private GcraRateLimiter exhausted;
+    private String[] addresses;
+
+    @Setup
+    public void setUp() {
+        // Limite alto o bastante para nunca recusar: mede só a atualização do estado
+        permissive = new GcraRateLimiter(1e9, 1_000_000);
+        exhausted = new GcraRateLimiter(0.001, 1);
+        exhausted.tryAcquire("10.0.0.1");
+        addresses = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            addresses[i] = "10.0." + (i >> 8) + "." + (i & 0xFF);
+            permissive.tryAcquire(addresses[i]);
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long sameClientContended() {
+        return permissive.tryAcquire("10.0.0.1");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long distinctClients() {
+        return permissive.tryAcquire(addresses[ThreadLocalRandom.current().nextInt(addresses.length)]);
+    }
+
+    @Benchmark
+    public long rejected() {
+        return exhausted.tryAcquire("10.0.0.1");
+    }
+
+    @Benchmark
+    public int evictIdleSweep() {
+        // Nenhum cliente está parado: mede a varredura completa do mapa, sem remoções
+        return permissive.evictIdle(Long.MAX_VALUE / 2);
+    }
+}
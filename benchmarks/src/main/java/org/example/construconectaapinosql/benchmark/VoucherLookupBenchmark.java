@@ -0,0 +1,122 @@
+package org.example.construconectaapinosql.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.example.construconectaapinosql.cache.CollectionVersions;
+import org.example.construconectaapinosql.cache.VoucherBloomFilter;
+import org.example.construconectaapinosql.cache.VoucherCache;
+import org.example.construconectaapinosql.config.PaginationSettings;
+import org.example.construconectaapinosql.model.Desconto;
+import org.example.construconectaapinosql.service.DescontoService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca exata de cupom pelo {@link DescontoService}: acerto no cache, cache desligado
+ * (toda busca vai ao repositório) e cupom inexistente, com e sem o filtro de Bloom na frente.
+ * Os {@code batch*} comparam um carrinho de {@code batch} cupons buscado um a um e de uma vez ({@code lookupVouchers}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VoucherLookupBenchmark {
+    @Param({"1000"})
+    private int vouchers;
+
+    @Param({"10"})
+    private int batch;
+
+    private DescontoService cachedService;
+    private DescontoService uncachedService;
+    private DescontoService unfilteredService;
+    private String[] names;
+    private List<String> cart;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        Map<String, Desconto> byCupomKey = new HashMap<>();
+        names = new String[vouchers];
+        for (int i = 0; i < vouchers; i++) {
+            Desconto voucher = new Desconto();
+            // O cache indexa também pelo id, como os documentos vindos do banco sempre têm
+            voucher.setId(new ObjectId());
+            voucher.setCupom("Cupom" + i);
+            voucher.setValorDesconto((double) (i % 50));
+            byCupomKey.put(voucher.getCupomKey(), voucher);
+            // Mistura caixa e espaços como chegam na URL, para a normalização entrar na medida
+            names[i] = " cupom" + i + " ";
+        }
+        PaginationSettings pagination = new PaginationSettings(100, 1000);
+        VoucherBloomFilter bloomFilter = bloomFilter(byCupomKey, true);
+        cachedService = new DescontoService(MongoStandIns.descontoRepository(byCupomKey),
+                new VoucherCache(vouchers), bloomFilter, pagination, new CollectionVersions(), new SimpleMeterRegistry(), 100);
+        uncachedService = new DescontoService(MongoStandIns.descontoRepository(byCupomKey),
+                new VoucherCache(0), bloomFilter, pagination, new CollectionVersions(), new SimpleMeterRegistry(), 100);
+        unfilteredService = new DescontoService(MongoStandIns.descontoRepository(byCupomKey),
+                new VoucherCache(vouchers), bloomFilter(byCupomKey, false), pagination, new CollectionVersions(), new SimpleMeterRegistry(), 100);
+        for (String name : names) {
+            cachedService.findByVoucherName(name);
+        }
+        // Metade do carrinho não existe, como cupons digitados errado
+        cart = new ArrayList<>(batch);
+        for (int i = 0; i < batch; i++) {
+            cart.add(i % 2 == 0 ? names[i] : "INEXISTENTE" + i);
+        }
+    }
+
+    private static VoucherBloomFilter bloomFilter(Map<String, Desconto> byCupomKey, boolean enabled) {
+        VoucherBloomFilter filter = new VoucherBloomFilter(MongoStandIns.descontoRepository(byCupomKey),
+                new SimpleMeterRegistry(), enabled, 100_000, 0.01);
+        filter.rebuild();
+        return filter;
+    }
+
+    private String nextName() {
+        String name = names[cursor];
+        cursor = (cursor + 1) % names.length;
+        return name;
+    }
+
+    @Benchmark
+    public List<Desconto> cacheHit() {
+        return cachedService.findByVoucherName(nextName());
+    }
+
+    @Benchmark
+    public List<Desconto> cacheDisabled() {
+        return uncachedService.findByVoucherName(nextName());
+    }
+
+    @Benchmark
+    public List<Desconto> notFound() {
+        return cachedService.findByVoucherName("INEXISTENTE");
+    }
+
+    @Benchmark
+    public List<Desconto> notFoundWithoutBloom() {
+        return unfilteredService.findByVoucherName("INEXISTENTE");
+    }
+
+    @Benchmark
+    public int batchOneByOne() {
+        int found = 0;
+        for (String name : cart) {
+            found += uncachedService.findByVoucherName(name).size();
+        }
+        return found;
+    }
+
+    @Benchmark
+    public Map<String, Desconto> batchLookup() {
+        return uncachedService.lookupVouchers(cart);
+    }
+}
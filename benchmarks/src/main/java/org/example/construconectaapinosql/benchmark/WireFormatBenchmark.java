@@ -0,0 +1,89 @@
+package org.example.construconectaapinosql.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.bson.types.ObjectId;
+import org.example.construconectaapinosql.model.Desconto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Custo de codificar e decodificar a lista de /discounts/discounts em cada formato aceito pelo header Accept,
+ * com e sem o gzip de server.compression. O tamanho de cada payload (bytes na rede) é impresso no início do fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private ObjectReader voucherListReader;
+    private List<Desconto> vouchers;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        JsonFactory factory = switch (format) {
+            case "smile" -> new SmileFactory();
+            case "cbor" -> new CBORFactory();
+            default -> new JsonFactory();
+        };
+        objectMapper = Jackson2ObjectMapperBuilder.json().factory(factory).build();
+        voucherListReader = objectMapper.readerForListOf(Desconto.class);
+        vouchers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Desconto voucher = new Desconto();
+            voucher.setId(new ObjectId());
+            voucher.setCupom("CUPOM" + i);
+            voucher.setValorDesconto(5.0 + i % 45);
+            voucher.setMaxUsos(100);
+            voucher.setExpiraEm(Instant.parse("2030-12-31T23:59:59Z"));
+            vouchers.add(voucher);
+        }
+        encoded = objectMapper.writeValueAsBytes(vouchers);
+        System.out.printf("%n%s, %d cupons: %d bytes, %d bytes com gzip%n",
+                format, size, encoded.length, gzip(encoded).length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return objectMapper.writeValueAsBytes(vouchers);
+    }
+
+    @Benchmark
+    public List<Desconto> decode() throws IOException {
+        return voucherListReader.readValue(encoded);
+    }
+
+    @Benchmark
+    public byte[] encodeGzip() throws IOException {
+        return gzip(objectMapper.writeValueAsBytes(vouchers));
+    }
+
+    private static byte[] gzip(byte[] payload) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 2 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(payload);
+        }
+        return out.toByteArray();
+    }
+}
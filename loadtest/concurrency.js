@@ -0,0 +1,45 @@
+// Teste de carga de concorrência das buscas de cupom (k6: https://k6.io).
+//
+// Sobe o número de usuários virtuais em degraus e mede a vazão e a latência de
+// GET /discounts/findByVoucherName/{cupom}. Rodar uma vez com o pool normal do Tomcat e
+// outra com threads virtuais, contra o mesmo MongoDB, e comparar os resumos:
+//
+//   java -jar target/*.jar                                   # pool de plataforma (200 threads)
+//   k6 run -e BASE_URL=http://localhost:8080 -e CUPOM=VAIDE10 loadtest/concurrency.js
+//
+//   mvn -Pjava21 package && java -jar target/*.jar --spring.profiles.active=virtual
+//   k6 run -e BASE_URL=http://localhost:8080 -e CUPOM=VAIDE10 loadtest/concurrency.js
+//
+// O cache de cupons deve ser desligado (app.cache.vouchers.max-size=0) para que toda
+// requisição vá ao MongoDB, que é o I/O bloqueante que se quer medir.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const CUPOM = __ENV.CUPOM || 'VAIDE10';
+
+export const options = {
+    scenarios: {
+        degraus: {
+            executor: 'ramping-vus',
+            startVUs: 50,
+            stages: [
+                { duration: '30s', target: 200 },
+                { duration: '30s', target: 200 },
+                { duration: '30s', target: 1000 },
+                { duration: '30s', target: 1000 },
+                { duration: '30s', target: 4000 },
+                { duration: '30s', target: 4000 },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(99)', 'max'],
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+export default function () {
+    const res = http.get(`${BASE_URL}/discounts/findByVoucherName/${CUPOM}`);
+    check(res, { 'status 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,35 @@
+#!/usr/bin/env bash
+# Tempo entre subir a JVM e a primeira resposta HTTP da API (qualquer status), repetido TTFR_RUNS vezes.
+#
+# Uso:   loadtest/time-to-first-request.sh <comando que sobe a API>
+# Ex.:   loadtest/time-to-first-request.sh java -jar target/ConstruConectaApiNoSQL-0.0.1-SNAPSHOT.jar
+#        loadtest/time-to-first-request.sh java -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true -jar app/application.jar
+#
+# As variáveis MONGODB_* precisam estar definidas, mas o banco não precisa estar no ar: a URL padrão
+# (/discounts/cache/stats) responde sem consultar o MongoDB.
+set -euo pipefail
+
+URL=${TTFR_URL:-http://localhost:8080/discounts/cache/stats}
+RUNS=${TTFR_RUNS:-5}
+
+if [ $# -eq 0 ]; then
+  sed -n '2,9p' "$0"
+  exit 1
+fi
+
+for run in $(seq "$RUNS"); do
+  start=$(date +%s%N)
+  "$@" >/dev/null 2>&1 &
+  pid=$!
+  until curl -s -o /dev/null "$URL"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "A API terminou antes de responder; rode o comando direto para ver o erro" >&2
+      exit 1
+    fi
+    sleep 0.02
+  done
+  end=$(date +%s%N)
+  echo "execução $run: $(( (end - start) / 1000000 )) ms"
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+done
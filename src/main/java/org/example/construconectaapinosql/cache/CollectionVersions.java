@@ -0,0 +1,34 @@
+package org.example.construconectaapinosql.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versão em memória de cada coleção, incrementada pelos métodos de escrita dos services e pelo change stream.
+ * Vira o ETag das leituras: um GET com If-None-Match igual responde 304 sem consultar o MongoDB nem serializar nada.
+ * O prefixo aleatório evita que um ETag emitido antes de um reinício seja aceito depois dele.
+ */
+@Component
+public class CollectionVersions {
+    public static final String DESCONTO = "desconto";
+    public static final String ADMINISTRADOR = "administrador";
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final ConcurrentHashMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public void bump(String collection) {
+        version(collection).incrementAndGet();
+    }
+
+    // Lido antes da consulta: se uma escrita acontecer no meio, o próximo GET com este ETag recebe 200
+    public String etag(String collection) {
+        return "\"" + collection + "-" + epoch + "-" + version(collection).get() + "\"";
+    }
+
+    private AtomicLong version(String collection) {
+        return versions.computeIfAbsent(collection, name -> new AtomicLong());
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.construconectaapinosql.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Junta buscas iguais e simultâneas numa só: a primeira thread de uma chave faz a consulta e as que chegam
+ * enquanto ela está em andamento esperam e recebem o mesmo resultado (ou a mesma exceção). Nada fica guardado
+ * depois que a consulta termina; para isso existe o {@link VoucherCache}.
+ * <p>
+ * O resultado é o mesmo objeto para todas as threads: quem chama não deve alterá-lo.
+ * A fração de buscas aproveitadas sai de {@code app_single_flight_calls_total{result="shared"}} sobre o total.
+ */
+public class SingleFlight<K, V> {
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.leaders = Counter.builder("app.single-flight.calls")
+                .description("Buscas que foram ao banco (leader) ou aproveitaram uma busca igual em andamento (shared)")
+                .tag("name", name).tag("result", "leader")
+                .register(meterRegistry);
+        this.followers = Counter.builder("app.single-flight.calls")
+                .description("Buscas que foram ao banco (leader) ou aproveitaram uma busca igual em andamento (shared)")
+                .tag("name", name).tag("result", "shared")
+                .register(meterRegistry);
+        Gauge.builder("app.single-flight.in-flight", inFlight, Map::size)
+                .description("Chaves com busca em andamento")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> query) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            followers.increment();
+            return await(running);
+        }
+        leaders.increment();
+        try {
+            V result = query.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            // Repassa a exceção original da consulta, como se esta thread a tivesse feito
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
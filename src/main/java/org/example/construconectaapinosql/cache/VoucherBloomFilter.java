@@ -0,0 +1,242 @@
+package org.example.construconectaapinosql.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.construconectaapinosql.repository.DescontoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Filtro de Bloom de todos os cupons ({@code cupom_key}), na frente das buscas exatas: se o filtro diz que o
+ * cupom não existe, a busca responde 404 sem ir ao banco. Falso negativo nunca acontece; falso positivo só
+ * custa a consulta que já seria feita.
+ * <p>
+ * É carregado com uma varredura em streaming logo após a inicialização e recarregado periodicamente, porque
+ * cupons excluídos não podem ser tirados de um filtro de Bloom. Até a primeira carga terminar, tudo "pode existir".
+ * <p>
+ * Vem desligado ({@code app.cache.vouchers.bloom.enabled}): com mais de um nó da API, os cupons criados nos outros
+ * nós só chegam pelo change stream. Quando o {@link org.example.construconectaapinosql.config.VoucherChangeStreamConfig}
+ * está ativo, o filtro só responde "não existe" enquanto a assinatura estiver aberta e só confia numa carga que
+ * começou com ela já aberta; sem change stream, ligue só com um único nó gravando na coleção.
+ */
+@Component
+@Profile("!reactive")
+public class VoucherBloomFilter {
+    private static final Logger log = LoggerFactory.getLogger(VoucherBloomFilter.class);
+
+    private final DescontoRepository descontoRepository;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile Bits current;
+    // Filtro sendo carregado: as gravações feitas durante a varredura entram nele também
+    private volatile Bits building;
+    private final AtomicLong deletedSinceBuild = new AtomicLong();
+    // Se as gravações dos outros nós estão chegando; sem change stream, todas passam por este nó
+    private volatile BooleanSupplier peerWritesVisible = () -> true;
+    private final AtomicBoolean reloadRequested = new AtomicBoolean();
+
+    private final Counter absent;
+    private final Counter maybePresent;
+    private final Timer rebuildTimer;
+
+    public VoucherBloomFilter(
+            DescontoRepository descontoRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.cache.vouchers.bloom.enabled:false}") boolean enabled,
+            @Value("${app.cache.vouchers.bloom.expected-insertions:100000}") long expectedInsertions,
+            @Value("${app.cache.vouchers.bloom.false-positive-rate:0.01}") double falsePositiveRate
+    ) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("app.cache.vouchers.bloom.expected-insertions deve ser maior que zero");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("app.cache.vouchers.bloom.false-positive-rate deve estar entre 0 e 1");
+        }
+        this.descontoRepository = descontoRepository;
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+
+        this.absent = Counter.builder("app.vouchers.bloom.lookups").tag("result", "absent").register(meterRegistry);
+        this.maybePresent = Counter.builder("app.vouchers.bloom.lookups").tag("result", "maybe").register(meterRegistry);
+        this.rebuildTimer = Timer.builder("app.vouchers.bloom.rebuild").register(meterRegistry);
+        Gauge.builder("app.vouchers.bloom.size", this, filter -> filter.current == null ? 0 : filter.current.sizeInBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("app.vouchers.bloom.fpp.expected", this, filter -> filter.falsePositiveRate)
+                .register(meterRegistry);
+        Gauge.builder("app.vouchers.bloom.fpp.estimated", this, filter -> filter.current == null ? 1 : filter.current.estimatedFpp())
+                .register(meterRegistry);
+        Gauge.builder("app.vouchers.bloom.deleted", deletedSinceBuild, AtomicLong::get)
+                .description("Cupons excluídos desde a última carga, que o filtro ainda acusa como existentes")
+                .register(meterRegistry);
+    }
+
+    public boolean mightContain(String cupomKey) {
+        Bits bits = current;
+        if (bits == null || cupomKey == null) {
+            return true;
+        }
+        if (!peerWritesVisible.getAsBoolean()) {
+            return true;
+        }
+        if (!bits.complete) {
+            // Carga feita antes do change stream abrir: pode faltar cupom de outro nó, recarrega uma vez agora
+            if (reloadRequested.compareAndSet(false, true)) {
+                CompletableFuture.runAsync(this::rebuild);
+            }
+            return true;
+        }
+        if (bits.mightContain(cupomKey)) {
+            maybePresent.increment();
+            return true;
+        }
+        absent.increment();
+        return false;
+    }
+
+    public void put(String cupomKey) {
+        if (cupomKey == null) {
+            return;
+        }
+        // Lê o filtro em carga antes do atual: assim nenhuma gravação fica fora dos dois durante a troca
+        Bits next = building;
+        Bits bits = current;
+        if (bits != null) {
+            bits.add(cupomKey);
+        }
+        if (next != null) {
+            next.add(cupomKey);
+        }
+    }
+
+    // Chamado pelo VoucherChangeStreamConfig com o estado da assinatura do change stream de cupons
+    public void watchPeerWrites(BooleanSupplier active) {
+        this.peerWritesVisible = active;
+    }
+
+    // Um filtro de Bloom não remove itens: o cupom excluído só sai na próxima carga
+    public void markDeleted() {
+        deletedSinceBuild.incrementAndGet();
+    }
+
+    @Scheduled(initialDelayString = "${app.cache.vouchers.bloom.initial-delay:PT0S}",
+            fixedDelayString = "${app.cache.vouchers.bloom.rebuild-interval:PT30M}")
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            // Folga de 25% sobre a coleção atual para os cupons criados até a próxima carga
+            long size = descontoRepository.estimatedCount();
+            // Lido antes da varredura: o que outro nó gravar depois chega pelo change stream já aberto
+            boolean complete = peerWritesVisible.getAsBoolean();
+            Bits next = new Bits(Math.max(expectedInsertions, size + size / 4), falsePositiveRate, complete);
+            building = next;
+            long deletedBefore = deletedSinceBuild.get();
+            descontoRepository.streamCupomKeys(next::add);
+            current = next;
+            deletedSinceBuild.addAndGet(-deletedBefore);
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível carregar o filtro de Bloom de cupons, as buscas seguem indo ao banco: {}", e.getMessage());
+        } finally {
+            building = null;
+            reloadRequested.set(false);
+            rebuildTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static final class Bits {
+        private final AtomicLongArray words;
+        private final long bitSize;
+        private final int hashes;
+        private final boolean complete;
+
+        Bits(long expectedInsertions, double falsePositiveRate, boolean complete) {
+            this.complete = complete;
+            // Tamanho e número de funções de hash ótimos: m = -n ln p / (ln 2)^2, k = m/n ln 2
+            long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) Math.min(Integer.MAX_VALUE, (bits + 63) / 64));
+            this.bitSize = words.length() * 64L;
+            this.hashes = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+        }
+
+        void add(String key) {
+            long hash = hash(key);
+            long h1 = mix(hash);
+            long h2 = mix(hash + 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitSize);
+                int index = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long word = words.get(index);
+                // Sem escrita quando o bit já está ligado, o caso comum com o filtro cheio
+                while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask)) {
+                    word = words.get(index);
+                }
+            }
+        }
+
+        boolean mightContain(String key) {
+            long hash = hash(key);
+            long h1 = mix(hash);
+            long h2 = mix(hash + 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitSize);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long sizeInBytes() {
+            return words.length() * 8L;
+        }
+
+        // Fração de bits ligados elevada a k: a chance real de um falso positivo com o filtro como está
+        double estimatedFpp() {
+            long set = 0;
+            for (int i = 0; i < words.length(); i++) {
+                set += Long.bitCount(words.get(i));
+            }
+            return Math.pow((double) set / bitSize, hashes);
+        }
+
+        // FNV-1a de 64 bits sobre os chars, sem criar o array de bytes da String
+        private static long hash(String key) {
+            long hash = 0xCBF29CE484222325L;
+            for (int i = 0; i < key.length(); i++) {
+                hash ^= key.charAt(i);
+                hash *= 0x100000001B3L;
+            }
+            return hash;
+        }
+
+        // Finalizador do MurmurHash3: espalha os bits antes do hash duplo h1 + i * h2
+        private static long mix(long hash) {
+            hash ^= hash >>> 33;
+            hash *= 0xFF51AFD7ED558CCDL;
+            hash ^= hash >>> 33;
+            hash *= 0xC4CEB9FE1A85EC53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.example.construconectaapinosql.cache;
+
+import org.example.construconectaapinosql.jfr.CacheAccessEvent;
+import org.example.construconectaapinosql.model.Desconto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache LRU em memória das buscas exatas de cupom, indexado pelo cupom normalizado ({@code cupom_key}).
+ * Os objetos são copiados na entrada e na saída para que quem chama possa alterá-los sem sujar o cache.
+ * <p>
+ * Uma leitura do banco só entra pelo {@link #putIfUnchanged}, com a {@link #generation()} lida antes da consulta:
+ * se houve uma invalidação no meio, o resultado pode ser anterior a ela e não é guardado. E nenhum put troca
+ * o documento guardado por uma versão mais antiga dele.
+ */
+@Component
+@Profile("!reactive")
+public class VoucherCache {
+    private final int maxSize;
+    private final Map<String, Desconto> entries;
+    // Índice reverso id -> cupom_key, para invalidar quando o cupom de um documento é renomeado ou removido
+    private final Map<String, String> keysById = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    // Avança a cada evict, mesmo sem entrada removida: o cupom invalidado pode estar sendo lido do banco agora
+    private final AtomicLong generation = new AtomicLong();
+
+    public VoucherCache(@Value("${app.cache.vouchers.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Desconto> eldest) {
+                if (size() > VoucherCache.this.maxSize) {
+                    keysById.remove(eldest.getValue().getId());
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Desconto get(String cupomKey) {
+        Desconto cached;
+        synchronized (entries) {
+            cached = entries.get(cupomKey);
+        }
+        CacheAccessEvent.record("vouchers", cupomKey, cached != null);
+        if (cached == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return new Desconto(cached);
+    }
+
+    // Para o documento que acabou de ser gravado, como devolvido pela própria escrita
+    public void put(Desconto voucher) {
+        Desconto copied = new Desconto(voucher);
+        synchronized (entries) {
+            store(copied);
+        }
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    // Para o resultado de uma leitura: descartado se houve alguma invalidação depois de generation
+    public boolean putIfUnchanged(Desconto voucher, long generation) {
+        Desconto copied = new Desconto(voucher);
+        synchronized (entries) {
+            if (this.generation.get() != generation) {
+                return false;
+            }
+            return store(copied);
+        }
+    }
+
+    private boolean store(Desconto copied) {
+        String previousKey = keysById.get(copied.getId());
+        Desconto previous = previousKey == null ? null : entries.get(previousKey);
+        if (previous != null && versao(previous) > versao(copied)) {
+            return false;
+        }
+        keysById.put(copied.getId(), copied.getCupomKey());
+        if (previousKey != null && !previousKey.equals(copied.getCupomKey())) {
+            entries.remove(previousKey);
+        }
+        entries.put(copied.getCupomKey(), copied);
+        return true;
+    }
+
+    private static long versao(Desconto voucher) {
+        return voucher.getVersao() == null ? 0 : voucher.getVersao();
+    }
+
+    public void evict(String cupomKey) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            Desconto removed = entries.remove(cupomKey);
+            if (removed != null) {
+                keysById.remove(removed.getId());
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    public void evictById(String id) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            String cupomKey = keysById.remove(id);
+            if (cupomKey != null && entries.remove(cupomKey) != null) {
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    public void evictAll() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            evictions.addAndGet(entries.size());
+            entries.clear();
+            keysById.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public Map<String, Long> stats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("evictions", evictions.get());
+        stats.put("size", (long) size());
+        stats.put("maxSize", (long) maxSize);
+        return stats;
+    }
+}
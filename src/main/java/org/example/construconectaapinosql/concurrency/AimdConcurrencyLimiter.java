@@ -0,0 +1,72 @@
+package org.example.construconectaapinosql.concurrency;
+
+/**
+ * Limite de requisições simultâneas que se ajusta à latência observada (AIMD, como o controle de congestionamento do TCP):
+ * cada resposta rápida com o limite em uso sobe o limite em {@code 1/limite}, cerca de +1 por "janela" cheia,
+ * e cada resposta acima da latência aceitável ou com erro o multiplica por {@code backoffRatio}.
+ * Com o MongoDB lento o limite cai e o excedente é recusado na hora, em vez de esperar numa thread do Tomcat.
+ * <p>
+ * Requisições de menor prioridade só entram enquanto as em andamento ocupam menos que a sua fração do limite,
+ * deixando o restante livre para as leituras baratas. As longas por natureza (listagens completas, exportação)
+ * são comparadas com uma latência aceitável própria, para também contribuírem sem derrubar o limite à toa.
+ */
+public class AimdConcurrencyLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final long bulkLatencyThresholdNanos;
+    private final double backoffRatio;
+    // Estado pequeno e seção crítica curta: um lock simples basta
+    private double limit;
+    private int inFlight;
+
+    public AimdConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos,
+                                  long bulkLatencyThresholdNanos, double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Os limites devem respeitar 1 <= minLimit <= initialLimit <= maxLimit");
+        }
+        if (latencyThresholdNanos <= 0 || bulkLatencyThresholdNanos <= 0 || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("As latências aceitáveis devem ser positivas e backoffRatio entre 0 e 1");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.bulkLatencyThresholdNanos = bulkLatencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+    }
+
+    /**
+     * Reserva uma vaga se as requisições em andamento ocupam menos que {@code share} do limite
+     * (1 para as de maior prioridade). Quem recebe {@code true} deve chamar {@link #release}.
+     */
+    public synchronized boolean tryAcquire(double share) {
+        if (inFlight >= Math.max(1, (int) (limit * share))) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Libera a vaga e ajusta o limite pela latência; com {@code bulk} ela é comparada com a latência aceitável
+     * das requisições longas por natureza.
+     */
+    public synchronized void release(long latencyNanos, boolean failed, boolean bulk) {
+        inFlight--;
+        if (failed || latencyNanos > (bulk ? bulkLatencyThresholdNanos : latencyThresholdNanos)) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inFlight * 2 >= limit) {
+            // Só cresce quando o limite está de fato em uso, senão ele subiria sem nunca ter sido testado
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,216 @@
+package org.example.construconectaapinosql.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limite adaptativo de requisições simultâneas por grupo de rotas (ver {@link AimdConcurrencyLimiter}).
+ * Acima do limite a resposta é 503 com Retry-After na hora, sem ocupar uma thread esperando pelo MongoDB;
+ * as leituras baratas têm o limite inteiro, escritas e listagens completas só uma parte dele.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "app.concurrency.enabled", havingValue = "true", matchIfMissing = true)
+// Depois do limite por cliente: quem já passou do seu limite não chega a ocupar vaga
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    static final String OVERLOADED_MESSAGE = "Serviço sobrecarregado. Tente novamente em alguns segundos.";
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD");
+    // Com algum deles a listagem devolve só uma página por keyset, tão barata quanto uma leitura exata
+    private static final List<String> PAGE_PARAMETERS = List.of("size", "next");
+
+    private final List<LimitedGroup> groups;
+    private final List<PathPattern> bulkPatterns;
+    private final List<PathPattern> readPatterns;
+    private final double lowPriorityShare;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        if (properties.lowPriorityShare() <= 0 || properties.lowPriorityShare() > 1) {
+            throw new IllegalArgumentException("app.concurrency.low-priority-share deve estar entre 0 e 1");
+        }
+        this.lowPriorityShare = properties.lowPriorityShare();
+        this.bulkPatterns = parse(properties.bulkPatterns());
+        this.readPatterns = parse(properties.readPatterns());
+        this.groups = properties.groups().stream()
+                .map(group -> new LimitedGroup(group, meterRegistry))
+                .toList();
+    }
+
+    private static List<PathPattern> parse(List<String> patterns) {
+        return patterns.stream().map(PathPatternParser.defaultInstance::parse).toList();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        PathContainer path = PathContainer.parsePath(request.getServletPath());
+        LimitedGroup group = match(path);
+        if (group == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        RequestClass requestClass = classify(request, path);
+        double share = requestClass == RequestClass.READ ? 1 : lowPriorityShare;
+        if (!group.limiter.tryAcquire(share)) {
+            group.rejected.get(requestClass).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().write(OVERLOADED_MESSAGE);
+            return;
+        }
+        Permit permit = new Permit(group.limiter, requestClass == RequestClass.BULK);
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (!failed && request.isAsyncStarted()) {
+                // Respostas em streaming (NDJSON) continuam depois do filtro: a vaga só é liberada no fim delas
+                request.getAsyncContext().addListener(permit, request, response);
+            } else {
+                permit.release(failed || response.getStatus() >= 500);
+            }
+        }
+    }
+
+    private LimitedGroup match(PathContainer path) {
+        for (LimitedGroup group : groups) {
+            if (group.matches(path)) {
+                return group;
+            }
+        }
+        return null;
+    }
+
+    RequestClass classify(HttpServletRequest request, PathContainer path) {
+        boolean read = READ_METHODS.contains(request.getMethod());
+        if (matchesAny(bulkPatterns, path) && !(read && isPaged(request))) {
+            return RequestClass.BULK;
+        }
+        return read || matchesAny(readPatterns, path) ? RequestClass.READ : RequestClass.WRITE;
+    }
+
+    private static boolean isPaged(HttpServletRequest request) {
+        for (String parameter : PAGE_PARAMETERS) {
+            if (request.getParameter(parameter) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesAny(List<PathPattern> patterns, PathContainer path) {
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    enum RequestClass {
+        READ, WRITE, BULK
+    }
+
+    private static final class Permit implements AsyncListener {
+        private final AimdConcurrencyLimiter limiter;
+        private final boolean bulk;
+        private final long start = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Permit(AimdConcurrencyLimiter limiter, boolean bulk) {
+            this.limiter = limiter;
+            this.bulk = bulk;
+        }
+
+        void release(boolean failed) {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(System.nanoTime() - start, failed, bulk);
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(((HttpServletResponse) event.getSuppliedResponse()).getStatus() >= 500);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(true);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(true);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    private static final class LimitedGroup {
+        private final PathPattern pattern;
+        private final List<PathPattern> exclude;
+        private final AimdConcurrencyLimiter limiter;
+        private final Map<RequestClass, Counter> rejected = new EnumMap<>(RequestClass.class);
+
+        LimitedGroup(ConcurrencyLimitProperties.Group group, MeterRegistry meterRegistry) {
+            this.pattern = PathPatternParser.defaultInstance.parse(group.pattern());
+            this.exclude = parse(group.exclude());
+            this.limiter = new AimdConcurrencyLimiter(group.initialLimit(), group.minLimit(), group.maxLimit(),
+                    group.latencyThreshold().toNanos(), group.bulkLatencyThreshold().toNanos(), group.backoffRatio());
+            for (RequestClass requestClass : RequestClass.values()) {
+                rejected.put(requestClass, Counter.builder("app.concurrency.rejected")
+                        .description("Requisições recusadas com 503 por excederem o limite de simultâneas")
+                        .tag("group", group.name())
+                        .tag("class", requestClass.name().toLowerCase(Locale.ROOT))
+                        .register(meterRegistry));
+            }
+            Gauge.builder("app.concurrency.limit", limiter, AimdConcurrencyLimiter::limit)
+                    .description("Limite atual de requisições simultâneas do grupo")
+                    .tag("group", group.name())
+                    .register(meterRegistry);
+            Gauge.builder("app.concurrency.in-flight", limiter, AimdConcurrencyLimiter::inFlight)
+                    .description("Requisições em andamento no grupo")
+                    .tag("group", group.name())
+                    .register(meterRegistry);
+        }
+
+        boolean matches(PathContainer path) {
+            return pattern.matches(path) && !matchesAny(exclude, path);
+        }
+    }
+}
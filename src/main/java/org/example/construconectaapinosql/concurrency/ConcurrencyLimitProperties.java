@@ -0,0 +1,35 @@
+package org.example.construconectaapinosql.concurrency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Grupos de rotas de {@code app.concurrency.groups}, cada um com o seu limite adaptativo. Vale o primeiro grupo
+ * cujo padrão casar e que não exclua a rota. As escritas e as rotas de {@code bulk-patterns} (listagens completas,
+ * exportação e importação) só usam {@code low-priority-share} do limite e são medidas contra {@code bulk-latency-threshold};
+ * as listagens paginadas ({@code size} ou {@code next}) contam como leitura. {@code read-patterns} marca os POST que só leem.
+ */
+@ConfigurationProperties("app.concurrency")
+public record ConcurrencyLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("0.7") double lowPriorityShare,
+        @DefaultValue List<String> bulkPatterns,
+        @DefaultValue List<String> readPatterns,
+        @DefaultValue List<Group> groups
+) {
+    public record Group(
+            String name,
+            String pattern,
+            @DefaultValue List<String> exclude,
+            @DefaultValue("20") int initialLimit,
+            @DefaultValue("4") int minLimit,
+            @DefaultValue("200") int maxLimit,
+            @DefaultValue("PT0.25S") Duration latencyThreshold,
+            @DefaultValue("PT2S") Duration bulkLatencyThreshold,
+            @DefaultValue("0.9") double backoffRatio
+    ) {
+    }
+}
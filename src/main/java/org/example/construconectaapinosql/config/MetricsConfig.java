@@ -0,0 +1,52 @@
+package org.example.construconectaapinosql.config;
+
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas além das que o Spring Boot já registra (http.server.requests por rota e
+ * mongodb.driver.commands por coleção e comando, via MongoMetricsCommandListener).
+ */
+@Configuration
+public class MetricsConfig {
+    // Necessário para o @Timed("app.service") dos services virar timer (tags class e method)
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    // Espera por uma conexão livre do pool: cresce quando o pool fica pequeno para a carga
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoPoolCheckoutMetrics(MeterRegistry registry) {
+        Timer checkedOut = Timer.builder("mongodb.driver.pool.checkout")
+                .description("Tempo de espera por uma conexão do pool do MongoDB")
+                .tag("status", "success")
+                .register(registry);
+        ConnectionPoolListener listener = new ConnectionPoolListener() {
+            @Override
+            public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+                checkedOut.record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+            }
+
+            @Override
+            public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+                Timer.builder("mongodb.driver.pool.checkout")
+                        .description("Tempo de espera por uma conexão do pool do MongoDB")
+                        .tag("status", event.getReason().name().toLowerCase(Locale.ROOT))
+                        .register(registry)
+                        .record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+            }
+        };
+        return builder -> builder.applyToConnectionPoolSettings(pool -> pool.addConnectionPoolListener(listener));
+    }
+}
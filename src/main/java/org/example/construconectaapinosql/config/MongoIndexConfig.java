@@ -0,0 +1,107 @@
+package org.example.construconectaapinosql.config;
+
+import com.mongodb.client.model.Filters;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.example.construconectaapinosql.model.Administrador;
+import org.example.construconectaapinosql.model.Desconto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+
+import java.util.List;
+
+/**
+ * Preenche os campos derivados dos documentos antigos e cria os índices usados nas buscas exatas e por faixa de valor.
+ */
+@Configuration
+@Profile("!memory & !reactive")
+public class MongoIndexConfig {
+    private static final Logger log = LoggerFactory.getLogger(MongoIndexConfig.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoIndexConfig(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        UNIQUE_KEYS.forEach(this::ensureUniqueKey);
+        ensureValorIndex();
+    }
+
+    // Serve a busca por faixa de valor já ordenada nos dois sentidos; _id desempata os valores iguais
+    private void ensureValorIndex() {
+        try {
+            long updated = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Desconto.class))
+                    .updateMany(MISSING_FRACAO, FRACAO_PIPELINE)
+                    .getModifiedCount();
+            if (updated > 0) {
+                log.info("{} documentos de {} receberam fracao_desconto", updated, mongoTemplate.getCollectionName(Desconto.class));
+            }
+            mongoTemplate.indexOps(Desconto.class).ensureIndex(valorIndex());
+        } catch (Exception e) {
+            log.error("Não foi possível criar o índice de valor_desconto: {}", e.getMessage());
+        }
+    }
+
+    // A unicidade de usuário, e-mail e cupom é garantida só por estes índices, sem consulta prévia nos services
+    private void ensureUniqueKey(DerivedKey key) {
+        try {
+            long updated = mongoTemplate.getCollection(mongoTemplate.getCollectionName(key.entity()))
+                    .updateMany(key.missing(), key.pipeline())
+                    .getModifiedCount();
+            if (updated > 0) {
+                log.info("{} documentos de {} receberam {}", updated, mongoTemplate.getCollectionName(key.entity()), key.key());
+            }
+            mongoTemplate.indexOps(key.entity()).ensureIndex(key.index());
+        } catch (Exception e) {
+            log.error("Não foi possível criar o índice único {}; verifique se há valores duplicados de {}: {}",
+                    key.key(), key.source(), e.getMessage());
+        }
+    }
+
+    // Definições compartilhadas com o ReactiveMongoIndexConfig, que faz o mesmo pelo driver reativo
+
+    static final List<DerivedKey> UNIQUE_KEYS = List.of(
+            new DerivedKey(Desconto.class, "cupom", "cupom_key", "$toUpper"),
+            new DerivedKey(Administrador.class, "usuario", "usuario_key", "$toLower"),
+            new DerivedKey(Administrador.class, "email", "email_key", "$toLower")
+    );
+
+    static final Bson MISSING_FRACAO = Filters.and(Filters.exists("fracao_desconto", false), Filters.type("valor_desconto", "number"));
+
+    static final List<Document> FRACAO_PIPELINE = List.of(new Document("$set", new Document("fracao_desconto",
+            new Document("$divide", List.of("$valor_desconto", 100)))));
+
+    static Index valorIndex() {
+        return new Index()
+                .on("valor_desconto", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.ASC)
+                .named("valor_desconto");
+    }
+
+    // Chave normalizada gravada junto com o campo original, com índice único
+    record DerivedKey(Class<?> entity, String source, String key, String caseOperator) {
+        Bson missing() {
+            return Filters.and(Filters.exists(key, false), Filters.type(source, "string"));
+        }
+
+        // Atualização em pipeline: calcula a chave no próprio servidor, sem trazer os documentos para a aplicação
+        List<Document> pipeline() {
+            return List.of(new Document("$set", new Document(key,
+                    new Document(caseOperator, new Document("$trim", new Document("input", "$" + source))))));
+        }
+
+        Index index() {
+            return new Index(key, Sort.Direction.ASC).named(key).unique().sparse();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.construconectaapinosql.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MongoPoolConfig {
+    // Sem a propriedade, vale o padrão do driver (ou o maxPoolSize da MONGODB_URI)
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoPoolCustomizer(
+            @Value("${app.mongodb.pool.max-size:#{null}}") Integer maxSize
+    ) {
+        return builder -> {
+            if (maxSize != null) {
+                builder.applyToConnectionPoolSettings(pool -> pool.maxSize(maxSize));
+            }
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.construconectaapinosql.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PaginationSettings {
+    private final int defaultSize;
+    private final int maxSize;
+
+    public PaginationSettings(
+            @Value("${app.pagination.default-size:100}") int defaultSize,
+            @Value("${app.pagination.max-size:1000}") int maxSize
+    ) {
+        this.defaultSize = defaultSize;
+        this.maxSize = maxSize;
+    }
+
+    public int resolveSize(Integer requested) {
+        if (requested == null) {
+            return defaultSize;
+        }
+        if (requested < 1) {
+            throw new IllegalArgumentException("O tamanho da página deve ser maior que zero.");
+        }
+        return Math.min(requested, maxSize);
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.construconectaapinosql.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.example.construconectaapinosql.cache.CollectionVersions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+
+/**
+ * Na variante reativa não há cache de cupons: o change stream só avança as {@link CollectionVersions},
+ * para que os ETags emitidos por um nó deixem de valer quando outro nó grava.
+ */
+@Configuration
+@Profile("reactive")
+@ConditionalOnProperty(name = "app.cache.vouchers.change-stream.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveChangeStreamConfig {
+    private static final Logger log = LoggerFactory.getLogger(ReactiveChangeStreamConfig.class);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final CollectionVersions collectionVersions;
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    public ReactiveChangeStreamConfig(ReactiveMongoTemplate mongoTemplate, CollectionVersions collectionVersions) {
+        this.mongoTemplate = mongoTemplate;
+        this.collectionVersions = collectionVersions;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        subscriptions.add(listen(CollectionVersions.DESCONTO));
+        subscriptions.add(listen(CollectionVersions.ADMINISTRADOR));
+    }
+
+    @PreDestroy
+    public void dispose() {
+        subscriptions.dispose();
+    }
+
+    private Disposable listen(String collection) {
+        return mongoTemplate.changeStream(collection, ChangeStreamOptions.empty(), Document.class)
+                .subscribe(event -> collectionVersions.bump(collection),
+                        e -> log.warn("Change stream de {} indisponível, ETags valem só para este nó: {}", collection, e.getMessage()));
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.construconectaapinosql.config;
+
+import org.example.construconectaapinosql.model.Desconto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * O mesmo que o {@link MongoIndexConfig}, pelo driver reativo: sem os índices únicos a variante
+ * reativa aceitaria cupons, usuários e e-mails repetidos.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveMongoIndexConfig {
+    private static final Logger log = LoggerFactory.getLogger(ReactiveMongoIndexConfig.class);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public ReactiveMongoIndexConfig(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        Flux.fromIterable(MongoIndexConfig.UNIQUE_KEYS)
+                .concatMap(this::ensureUniqueKey)
+                .then(ensureValorIndex())
+                .subscribe();
+    }
+
+    private Mono<Void> ensureValorIndex() {
+        String collection = mongoTemplate.getCollectionName(Desconto.class);
+        return mongoTemplate.getCollection(collection)
+                .flatMap(c -> Mono.from(c.updateMany(MongoIndexConfig.MISSING_FRACAO, MongoIndexConfig.FRACAO_PIPELINE)))
+                .doOnNext(result -> {
+                    if (result.getModifiedCount() > 0) {
+                        log.info("{} documentos de {} receberam fracao_desconto", result.getModifiedCount(), collection);
+                    }
+                })
+                .then(Mono.defer(() -> mongoTemplate.indexOps(Desconto.class).ensureIndex(MongoIndexConfig.valorIndex())))
+                .onErrorResume(e -> {
+                    log.error("Não foi possível criar o índice de valor_desconto: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Mono<Void> ensureUniqueKey(MongoIndexConfig.DerivedKey key) {
+        String collection = mongoTemplate.getCollectionName(key.entity());
+        return mongoTemplate.getCollection(collection)
+                .flatMap(c -> Mono.from(c.updateMany(key.missing(), key.pipeline())))
+                .doOnNext(result -> {
+                    if (result.getModifiedCount() > 0) {
+                        log.info("{} documentos de {} receberam {}", result.getModifiedCount(), collection, key.key());
+                    }
+                })
+                .then(Mono.defer(() -> mongoTemplate.indexOps(key.entity()).ensureIndex(key.index())))
+                .onErrorResume(e -> {
+                    log.error("Não foi possível criar o índice único {}; verifique se há valores duplicados de {}: {}",
+                            key.key(), key.source(), e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.construconectaapinosql.config;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.UpdateDescription;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.example.construconectaapinosql.cache.CollectionVersions;
+import org.example.construconectaapinosql.cache.VoucherBloomFilter;
+import org.example.construconectaapinosql.cache.VoucherCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.MessageListener;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Subscription;
+
+/**
+ * Escuta o change stream da coleção de cupons para invalidar o {@link VoucherCache}
+ * quando outro nó da API grava na coleção. Exige que o MongoDB rode como replica set.
+ * Também avança as {@link CollectionVersions} de cupons e administradores, para que os ETags
+ * emitidos por um nó deixem de valer quando outro nó grava.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "app.cache.vouchers.change-stream.enabled", havingValue = "true", matchIfMissing = true)
+public class VoucherChangeStreamConfig {
+    private static final Logger log = LoggerFactory.getLogger(VoucherChangeStreamConfig.class);
+
+    // O container não sobe sozinho (isAutoStartup é false): sem o start, nenhum evento chegaria aos listeners
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public MessageListenerContainer voucherChangeStreamContainer(
+            MongoTemplate mongoTemplate,
+            VoucherCache voucherCache,
+            VoucherBloomFilter voucherBloomFilter,
+            CollectionVersions collectionVersions
+    ) {
+        MessageListenerContainer container = new DefaultMessageListenerContainer(mongoTemplate);
+        ChangeStreamRequest<Document> request = ChangeStreamRequest.builder(voucherListener(voucherCache, voucherBloomFilter, collectionVersions))
+                .collection(CollectionVersions.DESCONTO)
+                .build();
+        Subscription vouchers = container.register(request, Document.class,
+                e -> log.warn("Change stream de cupons indisponível, cache será invalidado só localmente: {}", e.getMessage()));
+        // Sem a assinatura aberta, um cupom criado em outro nó ficaria fora do filtro e daria 404
+        voucherBloomFilter.watchPeerWrites(vouchers::isActive);
+        MessageListener<ChangeStreamDocument<Document>, Document> adminListener =
+                message -> collectionVersions.bump(CollectionVersions.ADMINISTRADOR);
+        container.register(ChangeStreamRequest.builder(adminListener).collection(CollectionVersions.ADMINISTRADOR).build(), Document.class,
+                e -> log.warn("Change stream de administradores indisponível, ETags valem só para este nó: {}", e.getMessage()));
+        return container;
+    }
+
+    static MessageListener<ChangeStreamDocument<Document>, Document> voucherListener(
+            VoucherCache voucherCache,
+            VoucherBloomFilter voucherBloomFilter,
+            CollectionVersions collectionVersions
+    ) {
+        return message -> {
+            collectionVersions.bump(CollectionVersions.DESCONTO);
+            ChangeStreamDocument<Document> event = message.getRaw();
+            // Cupom criado ou renomeado em outro nó: sem isto o filtro de Bloom daria 404 para ele até a próxima carga
+            String cupomKey = cupomKeyOf(event);
+            if (cupomKey != null) {
+                voucherBloomFilter.put(cupomKey);
+            }
+            BsonDocument documentKey = event != null ? event.getDocumentKey() : null;
+            if (documentKey != null && documentKey.isObjectId("_id")) {
+                voucherCache.evictById(documentKey.getObjectId("_id").getValue().toHexString());
+            } else {
+                // drop, rename ou invalidate: sem chave de documento, descarta tudo
+                voucherCache.evictAll();
+            }
+        };
+    }
+
+    private static String cupomKeyOf(ChangeStreamDocument<Document> event) {
+        if (event == null) {
+            return null;
+        }
+        if (event.getFullDocument() != null) {
+            return event.getFullDocument().getString("cupom_key");
+        }
+        UpdateDescription update = event.getUpdateDescription();
+        if (update != null && update.getUpdatedFields() != null && update.getUpdatedFields().isString("cupom_key")) {
+            return update.getUpdatedFields().getString("cupom_key").getValue();
+        }
+        return null;
+    }
+}
@@ -1,59 +1,120 @@
 package org.example.construconectaapinosql.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import org.bson.types.ObjectId;
+import org.example.construconectaapinosql.cache.CollectionVersions;
+import org.example.construconectaapinosql.dto.AdministradorUpdate;
+import org.example.construconectaapinosql.dto.LoginRequest;
+import org.example.construconectaapinosql.dto.LoginResponse;
+import org.example.construconectaapinosql.exception.InvalidFieldsException;
+import org.example.construconectaapinosql.exception.NotFoundException;
 import org.example.construconectaapinosql.model.Administrador;
+import org.example.construconectaapinosql.repository.DocumentVersion;
 import org.example.construconectaapinosql.service.AdministradorService;
+import org.example.construconectaapinosql.service.AuthService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.dao.DataAccessException;
-import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.validation.BindingResult;
 import org.springframework.validation.DataBinder;
-import org.springframework.validation.FieldError;
 import org.springframework.validation.Validator;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/admin")
+@Profile("!reactive")
 public class AdministradorController {
     private final AdministradorService administradorService;
+    private final AuthService authService;
     private final Validator validator;
+    private final ObjectMapper objectMapper;
 
     @Autowired
     public AdministradorController(
             AdministradorService administradorService,
-            Validator validator
+            AuthService authService,
+            Validator validator,
+            ObjectMapper objectMapper
     ) {
         this.administradorService = administradorService;
+        this.authService = authService;
         this.validator = validator;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/admins")
-    @Operation(summary = "Show all admins", description = "Returns a list of all available admins")
+    @Operation(summary = "Show all admins", description = "Returns a list of all available admins. When size or next is informed, returns one keyset page and the token of the next one. Send Accept: application/x-jackson-smile or application/cbor for a binary encoding")
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
                     description = "Successful operation",
-                    content = @Content(
-                            mediaType = "application/json",
-                            schema = @Schema(implementation = Administrador.class))),
+                    content = {
+                            @Content(mediaType = "application/json", schema = @Schema(implementation = Administrador.class)),
+                            @Content(mediaType = "application/x-jackson-smile", schema = @Schema(implementation = Administrador.class)),
+                            @Content(mediaType = "application/cbor", schema = @Schema(implementation = Administrador.class))}),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag sent in If-None-Match"),
             @ApiResponse(responseCode = "500", description = "Internal server error",
-                    content = @Content(mediaType = "text/plain"))
+                    content = @Content(mediaType = "application/problem+json"))
+    })
+    public ResponseEntity<?> getAdmins(
+            @Parameter(description = "Page size; enables keyset pagination when informed") @RequestParam(required = false) Integer size,
+            @Parameter(description = "Token returned as 'next' by the previous page") @RequestParam(required = false) String next,
+            @Parameter(description = "Comma separated fields to return (usuario, email); id and versao are always returned") @RequestParam(required = false) String fields,
+            WebRequest request
+    ) {
+        String etag = administradorService.adminsETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        if (size == null && next == null) {
+            return ResponseEntity.ok().eTag(etag).body(administradorService.findAllAdmins(fields));
+        }
+        return ResponseEntity.ok().eTag(etag).body(administradorService.findAdminsPage(next, size, fields));
+    }
+
+    @GetMapping(value = "/admins", produces = NdjsonResponses.APPLICATION_NDJSON)
+    @Operation(summary = "Stream all admins", description = "Streams every admin as newline-delimited JSON, reading from a database cursor so memory use does not grow with the collection")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful operation",
+                    content = @Content(mediaType = NdjsonResponses.APPLICATION_NDJSON,
+                            schema = @Schema(implementation = Administrador.class)))
+    })
+    public ResponseEntity<StreamingResponseBody> streamAdmins(@Parameter(description = "Comma separated fields to return (usuario, email); id and versao are always returned") @RequestParam(required = false) String fields) {
+        return NdjsonResponses.stream(objectMapper, administradorService.streamAllAdmins(fields));
+    }
+
+    @PostMapping("/login")
+    @Operation(summary = "Admin login", description = "Checks the password and returns a signed JWT. Send it as 'Authorization: Bearer <token>' on every POST, PATCH and DELETE under /admin and /discounts")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Login successful",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = LoginResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Validation error",
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "401", description = "Invalid user or password",
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "503", description = "Too many logins in progress, retry later",
+                    content = @Content(mediaType = "application/problem+json"))
     })
-    public List<Administrador> getAdmins() {
-        return administradorService.findAllAdmins();
+    public CompletableFuture<ResponseEntity<?>> login(@Valid @RequestBody LoginRequest request) {
+        // Resposta assíncrona: a thread da requisição é liberada enquanto o bcrypt roda.
+        // Falhas do futuro (banco, fila do bcrypt cheia) também passam pelo ApiExceptionHandler
+        return authService.login(request.login(), request.senha())
+                .thenApply(login -> login.<ResponseEntity<?>>map(ResponseEntity::ok)
+                        .orElseGet(() -> ApiExceptionHandler.problem(HttpStatus.UNAUTHORIZED, "Usuário ou senha inválidos.")));
     }
 
     @PostMapping("/add")
@@ -66,43 +127,19 @@ public class AdministradorController {
                             mediaType = "application/json",
                             schema = @Schema(implementation = Administrador.class))),
             @ApiResponse(responseCode = "201", description = "Admin created successfully"),
-            @ApiResponse(responseCode = "400", description = "Validation error or admin already exists",
-                    content = @Content(mediaType = "text/plain")),
-            @ApiResponse(responseCode = "409", description = "Data integrity violation",
-                    content = @Content(mediaType = "text/plain")),
+            @ApiResponse(responseCode = "400", description = "Validation error",
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "409", description = "Data integrity violation or duplicate unique field",
+                    content = @Content(mediaType = "application/problem+json")),
             @ApiResponse(responseCode = "500", description = "Internal server error",
-                    content = @Content(mediaType = "text/plain"))
+                    content = @Content(mediaType = "application/problem+json"))
     })
-    public ResponseEntity<?> addAdmin(@Valid @RequestBody Administrador admin,
-                                      BindingResult result
-    ) {
-        if (result.hasErrors()) {
-            StringBuilder sb = new StringBuilder("Erros de validação:\n ");
-            result.getAllErrors().forEach(error -> {
-                sb.append(" |\n|");
-                sb.append(error.getDefaultMessage());
-            });
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(sb.toString());
-        }
-
-        try {
-            Administrador savedAdm = administradorService.saveAdmins(admin);
-            if (savedAdm != null) {
-                return ResponseEntity.status(HttpStatus.CREATED).body(savedAdm);
-            } else {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Administrador já existe.");
-            }
-        } catch (DataIntegrityViolationException e) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).body("Erro de integridade de dados: \n" + e.getMessage());
-        } catch (DataAccessException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao acessar o banco de dados: \n" + e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao adicionar admin: \n" + e.getMessage());
-        }
+    public ResponseEntity<Administrador> addAdmin(@Valid @RequestBody Administrador admin) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(administradorService.saveAdmins(admin));
     }
 
     @PatchMapping("/update/{adminId}")
-    @Operation(summary = "Update a admin", description = "Updates the admin data with the specified adminId")
+    @Operation(summary = "Update a admin", description = "Updates only the informed fields (usuario, email, senha) of the admin with the specified adminId, in a single database operation")
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
@@ -111,76 +148,27 @@ public class AdministradorController {
                             mediaType = "application/json",
                             schema = @Schema(implementation = Administrador.class))),
             @ApiResponse(responseCode = "400", description = "Validation error",
-                    content = @Content(mediaType = "application/json")),
+                    content = @Content(mediaType = "application/problem+json")),
             @ApiResponse(responseCode = "404", description = "Admin not found",
-                    content = @Content(mediaType = "text/plain")),
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "409", description = "User or e-mail already in use",
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "412", description = "The admin changed since the ETag sent in If-Match"),
             @ApiResponse(responseCode = "500", description = "Internal server error",
-                    content = @Content(mediaType = "text/plain"))
+                    content = @Content(mediaType = "application/problem+json"))
     })
     public ResponseEntity<?> updateAdminById(@PathVariable String adminId,
-                                             @RequestBody Map<String, Object> updates) {
-        try {
-            ObjectId id = new ObjectId(adminId);
-            Administrador adm = administradorService.findAdminsById(id);
-
-            // Lista de campos válidos que podem ser atualizados
-            List<String> validFields = Arrays.asList("usuario", "email", "senha");
-
-            // Itera sobre as atualizações e só aplica as que são válidas
-            for (Map.Entry<String, Object> entry : updates.entrySet()) {
-                String field = entry.getKey();
-                if (!validFields.contains(field)) {
-                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Campo '" + field + "' não é válido para atualização.");
-                }
-
-                switch (field) {
-                    case "usuario":
-                        adm.setUsuario((String) entry.getValue());
-                        break;
-                    case "email":
-                        adm.setEmail((String) entry.getValue());
-                        break;
-                    case "senha":
-                        adm.setSenha((String) entry.getValue());
-                        break;
-                    default:
-                        break;
-                }
-            }
-
-            // Validação do admin atualizado
-            DataBinder binder = new DataBinder(adm);
-            binder.setValidator(validator);
-            binder.validate();
-            BindingResult result = binder.getBindingResult();
-            if (result.hasErrors()) {
-                Map<String, String> errors = validate(result);
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
-            }
-
-            administradorService.saveAdmins(adm);
-            return ResponseEntity.ok("O cupom de desconto com adminId " + adminId + " foi atualizado com sucesso.");
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Formato inválido para ObjectId: " + adminId);
-        } catch (DataIntegrityViolationException e) {
-            // Identifica qual campo violou a restrição UNIQUE
-            String message = e.getRootCause().getMessage();
-            if (message.contains("usuario")) {
-                return ResponseEntity.status(HttpStatus.CONFLICT).body("Erro: Usuário já está em uso.");
-            } else if (message.contains("email")) {
-                return ResponseEntity.status(HttpStatus.CONFLICT).body("Erro: E-mail já está em uso.");
-            } else {
-                return ResponseEntity.status(HttpStatus.CONFLICT).body("Erro de integridade de dados: " + e.getMessage());
-            }
-        } catch (DataAccessException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao acessar o banco de dados: \n" + e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Administrador não encontrado: " + e.getMessage());
-        }
+                                             @RequestBody Map<String, Object> updates,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ObjectId id = ObjectIds.parse(adminId);
+        AdministradorUpdate changes = AdministradorUpdate.fromMap(updates);
+        validate(changes);
+        Administrador updated = administradorService.updateAdmin(id, ifMatch(ifMatch), changes);
+        return ResponseEntity.ok().eTag(etag(updated)).body("O administrador com adminId " + adminId + " foi atualizado com sucesso.");
     }
 
-    @PatchMapping("/update/{userAdm}")
-    @Operation(summary = "Update a admin", description = "Updates the admin data with the specified userAdm")
+    @PatchMapping("/updateByUser/{userAdm}")
+    @Operation(summary = "Update a admin", description = "Updates only the informed fields (usuario, email, senha) of the admin with the specified userAdm, in a single database operation")
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
@@ -189,81 +177,26 @@ public class AdministradorController {
                             mediaType = "application/json",
                             schema = @Schema(implementation = Administrador.class))),
             @ApiResponse(responseCode = "400", description = "Validation error",
-                    content = @Content(mediaType = "application/json")),
+                    content = @Content(mediaType = "application/problem+json")),
             @ApiResponse(responseCode = "404", description = "Admin not found",
-                    content = @Content(mediaType = "text/plain")),
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "409", description = "User or e-mail already in use",
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "412", description = "The admin changed since the ETag sent in If-Match"),
             @ApiResponse(responseCode = "500", description = "Internal server error",
-                    content = @Content(mediaType = "text/plain"))
+                    content = @Content(mediaType = "application/problem+json"))
     })
     public ResponseEntity<?> updateAdminByUser(@PathVariable String userAdm,
-                                               @RequestBody Map<String, Object> updates) {
-        try {
-            List<Administrador> admim = administradorService.findByUsuarioIgnoreCase(userAdm);
-
-            if (admim.isEmpty()) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Administrador não encontrado.");
-            }
-
-            Administrador adm = getAdmins().get(0);
-
-            // Lista de campos válidos que podem ser atualizados
-            List<String> validFields = Arrays.asList("usuario", "email", "senha");
-
-            // Itera sobre as atualizações e só aplica as que são válidas
-            for (Map.Entry<String, Object> entry : updates.entrySet()) {
-                String field = entry.getKey();
-                if (!validFields.contains(field)) {
-                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Campo '" + field + "' não é válido para atualização.");
-                }
-
-                switch (field) {
-                    case "usuario":
-                        adm.setUsuario((String) entry.getValue());
-                        break;
-                    case "email":
-                        adm.setEmail((String) entry.getValue());
-                        break;
-                    case "senha":
-                        adm.setSenha((String) entry.getValue());
-                        break;
-                    default:
-                        break;
-                }
-            }
-
-            // Validação do admin atualizado
-            DataBinder binder = new DataBinder(adm);
-            binder.setValidator(validator);
-            binder.validate();
-            BindingResult result = binder.getBindingResult();
-            if (result.hasErrors()) {
-                Map<String, String> errors = validate(result);
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
-            }
-
-            administradorService.saveAdmins(adm);
-            return ResponseEntity.ok("O cupom de desconto com usuario " + userAdm + " foi atualizado com sucesso.");
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Formato inválido para ObjectId: " + userAdm);
-        } catch (DataIntegrityViolationException e) {
-            // Identifica qual campo violou a restrição UNIQUE
-            String message = e.getRootCause().getMessage();
-            if (message.contains("usuario")) {
-                return ResponseEntity.status(HttpStatus.CONFLICT).body("Erro: Usuário já está em uso.");
-            } else if (message.contains("email")) {
-                return ResponseEntity.status(HttpStatus.CONFLICT).body("Erro: E-mail já está em uso.");
-            } else {
-                return ResponseEntity.status(HttpStatus.CONFLICT).body("Erro de integridade de dados: " + e.getMessage());
-            }
-        } catch (DataAccessException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao acessar o banco de dados: \n" + e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Administrador não encontrado: " + e.getMessage());
-        }
+                                               @RequestBody Map<String, Object> updates,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        AdministradorUpdate changes = AdministradorUpdate.fromMap(updates);
+        validate(changes);
+        Administrador updated = administradorService.updateAdminByUsuario(userAdm, ifMatch(ifMatch), changes);
+        return ResponseEntity.ok().eTag(etag(updated)).body("O administrador com usuario " + userAdm + " foi atualizado com sucesso.");
     }
 
-    @PatchMapping("/update/{email}")
-    @Operation(summary = "Update a admin", description = "Updates the admin data with the specified email")
+    @PatchMapping("/updateByEmail/{email}")
+    @Operation(summary = "Update a admin", description = "Updates only the informed fields (usuario, email, senha) of the admin with the specified email, in a single database operation")
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
@@ -272,77 +205,22 @@ public class AdministradorController {
                             mediaType = "application/json",
                             schema = @Schema(implementation = Administrador.class))),
             @ApiResponse(responseCode = "400", description = "Validation error",
-                    content = @Content(mediaType = "application/json")),
+                    content = @Content(mediaType = "application/problem+json")),
             @ApiResponse(responseCode = "404", description = "Admin not found",
-                    content = @Content(mediaType = "text/plain")),
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "409", description = "User or e-mail already in use",
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "412", description = "The admin changed since the ETag sent in If-Match"),
             @ApiResponse(responseCode = "500", description = "Internal server error",
-                    content = @Content(mediaType = "text/plain"))
+                    content = @Content(mediaType = "application/problem+json"))
     })
     public ResponseEntity<?> updateAdminByEmail(@PathVariable String email,
-                                                @RequestBody Map<String, Object> updates) {
-        try {
-            List<Administrador> admim = administradorService.findByEmailIgnoreCase(email);
-
-            if (admim.isEmpty()) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Administrador não encontrado.");
-            }
-
-            Administrador adm = getAdmins().get(0);
-
-            // Lista de campos válidos que podem ser atualizados
-            List<String> validFields = Arrays.asList("usuario", "email", "senha");
-
-            // Itera sobre as atualizações e só aplica as que são válidas
-            for (Map.Entry<String, Object> entry : updates.entrySet()) {
-                String field = entry.getKey();
-                if (!validFields.contains(field)) {
-                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Campo '" + field + "' não é válido para atualização.");
-                }
-
-                switch (field) {
-                    case "usuario":
-                        adm.setUsuario((String) entry.getValue());
-                        break;
-                    case "email":
-                        adm.setEmail((String) entry.getValue());
-                        break;
-                    case "senha":
-                        adm.setSenha((String) entry.getValue());
-                        break;
-                    default:
-                        break;
-                }
-            }
-
-            // Validação do admin atualizado
-            DataBinder binder = new DataBinder(adm);
-            binder.setValidator(validator);
-            binder.validate();
-            BindingResult result = binder.getBindingResult();
-            if (result.hasErrors()) {
-                Map<String, String> errors = validate(result);
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
-            }
-
-            administradorService.saveAdmins(adm);
-            return ResponseEntity.ok("O cupom de desconto com e-mail " + email + " foi atualizado com sucesso.");
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Formato inválido para ObjectId: " + email);
-        } catch (DataIntegrityViolationException e) {
-            // Identifica qual campo violou a restrição UNIQUE
-            String message = e.getRootCause().getMessage();
-            if (message.contains("usuario")) {
-                return ResponseEntity.status(HttpStatus.CONFLICT).body("Erro: Usuário já está em uso.");
-            } else if (message.contains("email")) {
-                return ResponseEntity.status(HttpStatus.CONFLICT).body("Erro: E-mail já está em uso.");
-            } else {
-                return ResponseEntity.status(HttpStatus.CONFLICT).body("Erro de integridade de dados: " + e.getMessage());
-            }
-        } catch (DataAccessException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao acessar o banco de dados: \n" + e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Administrador não encontrado: " + e.getMessage());
-        }
+                                                @RequestBody Map<String, Object> updates,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        AdministradorUpdate changes = AdministradorUpdate.fromMap(updates);
+        validate(changes);
+        Administrador updated = administradorService.updateAdminByEmail(email, ifMatch(ifMatch), changes);
+        return ResponseEntity.ok().eTag(etag(updated)).body("O administrador com e-mail " + email + " foi atualizado com sucesso.");
     }
 
     @DeleteMapping("/delete/{adminId}")
@@ -355,29 +233,20 @@ public class AdministradorController {
                             mediaType = "application/json",
                             schema = @Schema(implementation = Administrador.class))),
             @ApiResponse(responseCode = "400", description = "Validation error",
-                    content = @Content(mediaType = "application/json")),
+                    content = @Content(mediaType = "application/problem+json")),
             @ApiResponse(responseCode = "404", description = "Admin not found",
-                    content = @Content(mediaType = "text/plain")),
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "412", description = "The admin changed since the ETag sent in If-Match"),
             @ApiResponse(responseCode = "500", description = "Internal server error",
-                    content = @Content(mediaType = "text/plain"))
+                    content = @Content(mediaType = "application/problem+json"))
     })
-    public ResponseEntity<?> deleteAdminByAdminId(@PathVariable String adminId) {
-        try {
-            ObjectId id = new ObjectId(adminId);
-            administradorService.deleteAdminsById(id);
-            return ResponseEntity.ok("Administrador excluído com sucesso");
-        } catch (DataIntegrityViolationException e) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).body("Erro de integridade de dados: \n" + e.getMessage());
-        } catch (DataAccessException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao acessar o banco de dados: \n" + e.getMessage());
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao deletar admin: \n" + e.getMessage());
-        }
+    public ResponseEntity<?> deleteAdminByAdminId(@PathVariable String adminId,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        administradorService.deleteAdminsById(ObjectIds.parse(adminId), ifMatch(ifMatch));
+        return ResponseEntity.ok().eTag(administradorService.adminsETag()).body("Administrador excluído com sucesso");
     }
 
-    @DeleteMapping("/delete/{email}")
+    @DeleteMapping("/deleteByEmail/{email}")
     @Operation(summary = "Delete a admin", description = "Deletes the admin with the specified email")
     @ApiResponses(value = {
             @ApiResponse(
@@ -387,28 +256,20 @@ public class AdministradorController {
                             mediaType = "application/json",
                             schema = @Schema(implementation = Administrador.class))),
             @ApiResponse(responseCode = "400", description = "Validation error",
-                    content = @Content(mediaType = "application/json")),
+                    content = @Content(mediaType = "application/problem+json")),
             @ApiResponse(responseCode = "404", description = "Admin not found",
-                    content = @Content(mediaType = "text/plain")),
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "412", description = "The admin changed since the ETag sent in If-Match"),
             @ApiResponse(responseCode = "500", description = "Internal server error",
-                    content = @Content(mediaType = "text/plain"))
+                    content = @Content(mediaType = "application/problem+json"))
     })
-    public ResponseEntity<?> deleteAdminByAdminEmail(@PathVariable String email) {
-        try {
-            administradorService.deleteAdminsByEmail(email);
-            return ResponseEntity.ok("Administrador excluído com sucesso");
-        } catch (DataIntegrityViolationException e) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).body("Erro de integridade de dados: \n" + e.getMessage());
-        } catch (DataAccessException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao acessar o banco de dados: \n" + e.getMessage());
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao deletar admin: \n" + e.getMessage());
-        }
+    public ResponseEntity<?> deleteAdminByAdminEmail(@PathVariable String email,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        administradorService.deleteAdminsByEmail(email, ifMatch(ifMatch));
+        return ResponseEntity.ok().eTag(administradorService.adminsETag()).body("Administrador excluído com sucesso");
     }
 
-    @DeleteMapping("/delete/{userAdm}")
+    @DeleteMapping("/deleteByUser/{userAdm}")
     @Operation(summary = "Delete a admin", description = "Deletes the admin with the specified userAdm")
     @ApiResponses(value = {
             @ApiResponse(
@@ -418,25 +279,17 @@ public class AdministradorController {
                             mediaType = "application/json",
                             schema = @Schema(implementation = Administrador.class))),
             @ApiResponse(responseCode = "400", description = "Validation error",
-                    content = @Content(mediaType = "application/json")),
+                    content = @Content(mediaType = "application/problem+json")),
             @ApiResponse(responseCode = "404", description = "Admin not found",
-                    content = @Content(mediaType = "text/plain")),
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "412", description = "The admin changed since the ETag sent in If-Match"),
             @ApiResponse(responseCode = "500", description = "Internal server error",
-                    content = @Content(mediaType = "text/plain"))
+                    content = @Content(mediaType = "application/problem+json"))
     })
-    public ResponseEntity<?> deleteAdminByAdminUserAdmin(@PathVariable String userAdm) {
-        try {
-            administradorService.deleteAdminsByUser(userAdm);
-            return ResponseEntity.ok("Administrador excluído com sucesso");
-        } catch (DataIntegrityViolationException e) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).body("Erro de integridade de dados: \n" + e.getMessage());
-        } catch (DataAccessException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao acessar o banco de dados: \n" + e.getMessage());
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao deletar admin: \n" + e.getMessage());
-        }
+    public ResponseEntity<?> deleteAdminByAdminUserAdmin(@PathVariable String userAdm,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        administradorService.deleteAdminsByUser(userAdm, ifMatch(ifMatch));
+        return ResponseEntity.ok().eTag(administradorService.adminsETag()).body("Administrador excluído com sucesso");
     }
 
     @GetMapping("/findByUserAdmin/{userAdm}")
@@ -445,17 +298,24 @@ public class AdministradorController {
             @ApiResponse(responseCode = "200", description = "Admin found",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = Administrador.class))),
             @ApiResponse(responseCode = "404", description = "Admin not found",
-                    content = @Content(mediaType = "text/plain")),
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag sent in If-None-Match"),
             @ApiResponse(responseCode = "500", description = "Internal server error",
-                    content = @Content(mediaType = "text/plain"))
+                    content = @Content(mediaType = "application/problem+json"))
     })
-    public ResponseEntity<?> searchByUserAdm(@PathVariable String userAdm) {
-        List<Administrador> lAdmin = administradorService.findByUsuarioIgnoreCase(userAdm);
-        if (!lAdmin.isEmpty()) {
-            return ResponseEntity.ok(lAdmin);
-        } else {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Administrador não encontrado.");
+    public ResponseEntity<?> searchByUserAdm(@PathVariable String userAdm,
+                                             @Parameter(description = "Comma separated fields to return (usuario, email); id and versao are always returned") @RequestParam(required = false) String fields,
+                                             WebRequest request) {
+        // ETag do documento, não da coleção: é o que o If-Match do PATCH e do DELETE deste administrador espera
+        List<Administrador> lAdmin = administradorService.findAdminsByUsuario(userAdm, fields);
+        if (lAdmin.isEmpty()) {
+            throw new NotFoundException("Administrador não encontrado.");
         }
+        String etag = etag(lAdmin.get(0));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(lAdmin);
     }
 
     @GetMapping("/findByEmailAdmin/{email}")
@@ -464,24 +324,41 @@ public class AdministradorController {
             @ApiResponse(responseCode = "200", description = "Admin found",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = Administrador.class))),
             @ApiResponse(responseCode = "404", description = "Admin not found",
-                    content = @Content(mediaType = "text/plain")),
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag sent in If-None-Match"),
             @ApiResponse(responseCode = "500", description = "Internal server error",
-                    content = @Content(mediaType = "text/plain"))
+                    content = @Content(mediaType = "application/problem+json"))
     })
-    public ResponseEntity<?> searchByEmailAdm(@PathVariable String email) {
-        List<Administrador> lAdmin = administradorService.findByEmailIgnoreCase(email);
-        if (!lAdmin.isEmpty()) {
-            return ResponseEntity.ok(lAdmin);
-        } else {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Administrador não encontrado.");
+    public ResponseEntity<?> searchByEmailAdm(@PathVariable String email,
+                                              @Parameter(description = "Comma separated fields to return (usuario, email); id and versao are always returned") @RequestParam(required = false) String fields,
+                                              WebRequest request) {
+        // ETag do documento, não da coleção: é o que o If-Match do PATCH e do DELETE deste administrador espera
+        List<Administrador> lAdmin = administradorService.findAdminsByEmail(email, fields);
+        if (lAdmin.isEmpty()) {
+            throw new NotFoundException("Administrador não encontrado.");
+        }
+        String etag = etag(lAdmin.get(0));
+        if (request.checkNotModified(etag)) {
+            return null;
         }
+        return ResponseEntity.ok().eTag(etag).body(lAdmin);
+    }
+
+    private static DocumentVersion ifMatch(String ifMatch) {
+        return DocumentVersion.fromIfMatch(CollectionVersions.ADMINISTRADOR, ifMatch);
+    }
+
+    private static String etag(Administrador admin) {
+        return DocumentVersion.of(admin.getId(), admin.getVersao()).etag(CollectionVersions.ADMINISTRADOR);
     }
 
-    public Map<String, String> validate(BindingResult resultado) {
-        Map<String, String> errors = new HashMap<>();
-        for (FieldError error : resultado.getFieldErrors()) {
-            errors.put(error.getField(), error.getDefaultMessage());
+    private void validate(AdministradorUpdate changes) {
+        DataBinder binder = new DataBinder(changes);
+        binder.setValidator(validator);
+        binder.validate();
+        Map<String, String> errors = InvalidFieldsException.fieldErrors(binder.getBindingResult());
+        if (!errors.isEmpty()) {
+            throw new InvalidFieldsException(errors);
         }
-        return errors;
     }
 }
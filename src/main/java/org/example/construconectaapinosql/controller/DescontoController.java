@@ -1,5 +1,7 @@
 package org.example.construconectaapinosql.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -8,53 +10,95 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import org.bson.types.ObjectId;
+import org.example.construconectaapinosql.cache.CollectionVersions;
+import org.example.construconectaapinosql.dto.BulkImportResult;
+import org.example.construconectaapinosql.dto.DescontoUpdate;
+import org.example.construconectaapinosql.dto.DiscountHistogram;
+import org.example.construconectaapinosql.dto.RedeemResult;
+import org.example.construconectaapinosql.exception.InvalidFieldsException;
+import org.example.construconectaapinosql.exception.NotFoundException;
 import org.example.construconectaapinosql.model.Desconto;
+import org.example.construconectaapinosql.repository.DocumentVersion;
+import org.example.construconectaapinosql.service.DescontoBulkService;
 import org.example.construconectaapinosql.service.DescontoService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.dao.DataAccessException;
-import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.validation.BindingResult;
 import org.springframework.validation.DataBinder;
-import org.springframework.validation.FieldError;
 import org.springframework.validation.Validator;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.Arrays;
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/discounts")
+@Profile("!reactive")
 public class DescontoController {
     private final DescontoService descontoService;
+    private final DescontoBulkService descontoBulkService;
     private final Validator validator;
+    private final ObjectMapper objectMapper;
 
     @Autowired
     public DescontoController(
             DescontoService descontoService,
-            Validator validator
+            DescontoBulkService descontoBulkService,
+            Validator validator,
+            ObjectMapper objectMapper
     ) {
         this.descontoService = descontoService;
+        this.descontoBulkService = descontoBulkService;
         this.validator = validator;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/discounts")
-    @Operation(summary = "Show all vouchers", description = "Returns a list of all available vouchers")
+    @Operation(summary = "Show all vouchers", description = "Returns a list of all available vouchers. When size or next is informed, returns one keyset page and the token of the next one. Send Accept: application/x-jackson-smile or application/cbor for a binary encoding")
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
                     description = "Successful operation",
-                    content = @Content(
-                            mediaType = "application/json",
-                            schema = @Schema(implementation = Desconto.class))),
+                    content = {
+                            @Content(mediaType = "application/json", schema = @Schema(implementation = Desconto.class)),
+                            @Content(mediaType = "application/x-jackson-smile", schema = @Schema(implementation = Desconto.class)),
+                            @Content(mediaType = "application/cbor", schema = @Schema(implementation = Desconto.class))}),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag sent in If-None-Match"),
             @ApiResponse(responseCode = "500", description = "Internal server error",
-                    content = @Content(mediaType = "text/plain"))
+                    content = @Content(mediaType = "application/problem+json"))
+    })
+    public ResponseEntity<?> getDiscounts(
+            @Parameter(description = "Page size; enables keyset pagination when informed") @RequestParam(required = false) Integer size,
+            @Parameter(description = "Token returned as 'next' by the previous page") @RequestParam(required = false) String next,
+            @Parameter(description = "Comma separated fields to return (cupom, valorDesconto, fracaoDesconto, maxUsos, usos, expiraEm); id and versao are always returned") @RequestParam(required = false) String fields,
+            WebRequest request
+    ) {
+        String etag = descontoService.vouchersETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        if (size == null && next == null) {
+            return ResponseEntity.ok().eTag(etag).body(descontoService.findAllVouchers(fields));
+        }
+        return ResponseEntity.ok().eTag(etag).body(descontoService.findVouchersPage(next, size, fields));
+    }
+
+    @GetMapping(value = "/discounts", produces = NdjsonResponses.APPLICATION_NDJSON)
+    @Operation(summary = "Stream all vouchers", description = "Streams every voucher as newline-delimited JSON, reading from a database cursor so memory use does not grow with the collection")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful operation",
+                    content = @Content(mediaType = NdjsonResponses.APPLICATION_NDJSON,
+                            schema = @Schema(implementation = Desconto.class)))
     })
-    public List<Desconto> getDiscounts() {
-        return descontoService.findAllVouchers();
+    public ResponseEntity<StreamingResponseBody> streamVouchers(@Parameter(description = "Comma separated fields to return (cupom, valorDesconto, fracaoDesconto, maxUsos, usos, expiraEm); id and versao are always returned") @RequestParam(required = false) String fields) {
+        return NdjsonResponses.stream(objectMapper, descontoService.streamAllVouchers(fields));
     }
 
     @PostMapping("/add")
@@ -67,43 +111,52 @@ public class DescontoController {
                             mediaType = "application/json",
                             schema = @Schema(implementation = Desconto.class))),
             @ApiResponse(responseCode = "201", description = "Voucher created successfully"),
-            @ApiResponse(responseCode = "400", description = "Validation error or voucher already exists",
-                    content = @Content(mediaType = "text/plain")),
-            @ApiResponse(responseCode = "409", description = "Data integrity violation",
-                    content = @Content(mediaType = "text/plain")),
+            @ApiResponse(responseCode = "400", description = "Validation error",
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "409", description = "Data integrity violation or duplicate unique field",
+                    content = @Content(mediaType = "application/problem+json")),
             @ApiResponse(responseCode = "500", description = "Internal server error",
-                    content = @Content(mediaType = "text/plain"))
+                    content = @Content(mediaType = "application/problem+json"))
     })
-    public ResponseEntity<?> addVoucher(@Valid @RequestBody Desconto voucher,
-                                        BindingResult result
-    ) {
-        if (result.hasErrors()) {
-            StringBuilder sb = new StringBuilder("Erros de validação:\n ");
-            result.getAllErrors().forEach(error -> {
-                sb.append(" |\n|");
-                sb.append(error.getDefaultMessage());
-            });
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(sb.toString());
-        }
+    public ResponseEntity<Desconto> addVoucher(@Valid @RequestBody Desconto voucher) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(descontoService.saveVouchers(voucher));
+    }
 
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, NdjsonResponses.APPLICATION_NDJSON})
+    @Operation(summary = "Bulk import vouchers", description = "Imports vouchers from a JSON array or newline-delimited JSON body. Items are parsed one at a time, validated and written in unordered batches; the response lists every rejected item by index")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import processed; see failures for rejected items",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkImportResult.class))),
+            @ApiResponse(responseCode = "400", description = "Malformed JSON; batches before the error were already written",
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/problem+json"))
+    })
+    public ResponseEntity<?> bulkImport(InputStream body) throws IOException {
         try {
-            Desconto savedVoucher = descontoService.saveVouchers(voucher);
-            if (savedVoucher != null) {
-                return ResponseEntity.status(HttpStatus.CREATED).body(savedVoucher);
-            } else {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Cupom de desconto já existe.");
-            }
-        } catch (DataIntegrityViolationException e) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).body("Erro de integridade de dados: \n" + e.getMessage());
-        } catch (DataAccessException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao acessar o banco de dados: \n" + e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao adicionar cupom: \n" + e.getMessage());
+            return ResponseEntity.ok(descontoBulkService.importVouchers(body));
+        } catch (JsonProcessingException e) {
+            return ApiExceptionHandler.problem(HttpStatus.BAD_REQUEST, "JSON inválido (lotes anteriores ao erro já foram gravados): " + e.getOriginalMessage());
         }
     }
 
+    @GetMapping("/export")
+    @Operation(summary = "Export all vouchers", description = "Streams every voucher as newline-delimited JSON, in the format accepted by /discounts/bulk")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful operation",
+                    content = @Content(mediaType = NdjsonResponses.APPLICATION_NDJSON,
+                            schema = @Schema(implementation = Desconto.class)))
+    })
+    public ResponseEntity<StreamingResponseBody> exportVouchers() {
+        ResponseEntity<StreamingResponseBody> response = NdjsonResponses.stream(objectMapper, descontoService.streamAllVouchers(null));
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"descontos.ndjson\"")
+                .body(response.getBody());
+    }
+
     @PatchMapping("/update/{voucherId}")
-    @Operation(summary = "Update a voucher", description = "Updates the voucher data with the specified voucherId")
+    @Operation(summary = "Update a voucher", description = "Updates only the informed fields (cupom, valorDesconto, maxUsos, expiraEm) of the voucher with the specified voucherId, in a single database operation")
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
@@ -112,140 +165,45 @@ public class DescontoController {
                             mediaType = "application/json",
                             schema = @Schema(implementation = Desconto.class))),
             @ApiResponse(responseCode = "400", description = "Validation error",
-                    content = @Content(mediaType = "application/json")),
+                    content = @Content(mediaType = "application/problem+json")),
             @ApiResponse(responseCode = "404", description = "Voucher not found",
-                    content = @Content(mediaType = "text/plain")),
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "409", description = "Voucher already exists",
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "412", description = "The voucher changed since the ETag sent in If-Match"),
             @ApiResponse(responseCode = "500", description = "Internal server error",
-                    content = @Content(mediaType = "text/plain"))
+                    content = @Content(mediaType = "application/problem+json"))
     })
     public ResponseEntity<?> updateVoucherById(@PathVariable String voucherId,
-                                               @RequestBody Map<String, Object> updates) {
-        try {
-            ObjectId id = new ObjectId(voucherId);
-            Desconto voucher = descontoService.findVouchersById(id);
-
-            // Lista de campos válidos que podem ser atualizados
-            List<String> validFields = Arrays.asList("cupom", "valor_desconto");
-
-            // Itera sobre as atualizações e só aplica as que são válidas
-            for (Map.Entry<String, Object> entry : updates.entrySet()) {
-                String field = entry.getKey();
-                if (!validFields.contains(field)) {
-                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Campo '" + field + "' não é válido para atualização.");
-                }
-
-                switch (field) {
-                    case "cupom":
-                        voucher.setCupom((String) entry.getValue());
-                        break;
-                    case "valorDesconto":
-                        // Verifica se o valor é Integer e converte para Double se necessário
-                        Object value = entry.getValue();
-                        if (value instanceof Integer) {
-                            voucher.setValorDesconto(((Integer) value).doubleValue());
-                        } else if (value instanceof Double) {
-                            voucher.setValorDesconto((Double) value);
-                        } else {
-                            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Formato inválido para o campo 'valorDesconto'. Deve ser um número.");
-                        }
-                        break;
-                    default:
-                        break;
-                }
-            }
-
-            // Validação do voucher atualizado
-            DataBinder binder = new DataBinder(voucher);
-            binder.setValidator(validator);
-            binder.validate();
-            BindingResult result = binder.getBindingResult();
-            if (result.hasErrors()) {
-                Map<String, String> errors = validate(result);
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
-            }
-
-            descontoService.saveVouchers(voucher);
-            return ResponseEntity.ok("O cupom de desconto com voucherId " + voucherId + " foi atualizado com sucesso.");
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Formato inválido para ObjectId: " + voucherId);
-        } catch (DataIntegrityViolationException e) {
-            // Identifica qual campo violou a restrição UNIQUE
-            String message = e.getRootCause().getMessage();
-            if (message.contains("cupom")) {
-                return ResponseEntity.status(HttpStatus.CONFLICT).body("Erro: Cupom já está em uso.");
-            } else {
-                return ResponseEntity.status(HttpStatus.CONFLICT).body("Erro de integridade de dados: " + e.getMessage());
-            }
-        } catch (DataAccessException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao acessar o banco de dados: \n" + e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Voucher não encontrado: " + e.getMessage());
-        }
+                                               @RequestBody Map<String, Object> updates,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ObjectId id = ObjectIds.parse(voucherId);
+        DescontoUpdate changes = DescontoUpdate.fromMap(updates);
+        validate(changes);
+        // O If-Match vai para o filtro do próprio findAndModify: de duas escritas com o mesmo ETag, só uma passa
+        Desconto updated = descontoService.updateVoucher(id, ifMatch(ifMatch), changes);
+        return ResponseEntity.ok().eTag(etag(updated)).body("O cupom de desconto com voucherId " + voucherId + " foi atualizado com sucesso.");
     }
 
     @PatchMapping("/updateByCupom/{cupom}")
-    @Operation(summary = "Update a voucher by coupon name", description = "Updates voucher data using the specified coupon name")
+    @Operation(summary = "Update a voucher by coupon name", description = "Updates only the informed fields (cupom, valorDesconto, maxUsos, expiraEm) of the voucher with the specified coupon name, in a single database operation")
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
                     description = "Voucher updated successfully",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = Desconto.class))),
-            @ApiResponse(responseCode = "400", description = "Validation error", content = @Content(mediaType = "application/json")),
-            @ApiResponse(responseCode = "404", description = "Voucher not found", content = @Content(mediaType = "text/plain")),
-            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "text/plain"))
+            @ApiResponse(responseCode = "400", description = "Validation error", content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "404", description = "Voucher not found", content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "409", description = "Voucher already exists", content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "412", description = "The voucher changed since the ETag sent in If-Match"),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/problem+json"))
     })
-    public ResponseEntity<?> updateVoucherByCupom(@PathVariable String cupom, @RequestBody Map<String, Object> updates) {
-        try {
-            List<Desconto> vouchers = descontoService.findByVoucherName(cupom);
-
-            if (vouchers.isEmpty()) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Cupom não encontrado.");
-            }
-
-            Desconto voucher = vouchers.get(0);
-
-            // Lista de campos válidos que podem ser atualizados
-            List<String> validFields = Arrays.asList("cupom", "valorDesconto");
-
-            for (Map.Entry<String, Object> entry : updates.entrySet()) {
-                String field = entry.getKey();
-                if (!validFields.contains(field)) {
-                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Campo '" + field + "' não é válido para atualização.");
-                }
-
-                switch (field) {
-                    case "cupom":
-                        voucher.setCupom((String) entry.getValue());
-                        break;
-                    case "valorDesconto":
-                        Object value = entry.getValue();
-                        if (value instanceof Integer) {
-                            voucher.setValorDesconto(((Integer) value).doubleValue());
-                        } else if (value instanceof Double) {
-                            voucher.setValorDesconto((Double) value);
-                        } else {
-                            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Formato inválido para o campo 'valorDesconto'. Deve ser um número.");
-                        }
-                        break;
-                    default:
-                        break;
-                }
-            }
-
-            descontoService.saveVouchers(voucher);
-            return ResponseEntity.ok("O cupom de desconto '" + cupom + "' foi atualizado com sucesso.");
-        } catch (DataIntegrityViolationException e) {
-            String message = e.getRootCause().getMessage();
-            if (message.contains("cupom")) {
-                return ResponseEntity.status(HttpStatus.CONFLICT).body("Erro: Cupom já está em uso.");
-            } else {
-                return ResponseEntity.status(HttpStatus.CONFLICT).body("Erro de integridade de dados: " + e.getMessage());
-            }
-        } catch (DataAccessException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao acessar o banco de dados: \n" + e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao atualizar cupom: " + e.getMessage());
-        }
+    public ResponseEntity<?> updateVoucherByCupom(@PathVariable String cupom, @RequestBody Map<String, Object> updates,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        DescontoUpdate changes = DescontoUpdate.fromMap(updates);
+        validate(changes);
+        Desconto updated = descontoService.updateVoucherByCupom(cupom, ifMatch(ifMatch), changes);
+        return ResponseEntity.ok().eTag(etag(updated)).body("O cupom de desconto '" + cupom + "' foi atualizado com sucesso.");
     }
 
     @DeleteMapping("/delete/{voucherId}")
@@ -258,26 +216,17 @@ public class DescontoController {
                             mediaType = "application/json",
                             schema = @Schema(implementation = Desconto.class))),
             @ApiResponse(responseCode = "400", description = "Validation error",
-                    content = @Content(mediaType = "application/json")),
+                    content = @Content(mediaType = "application/problem+json")),
             @ApiResponse(responseCode = "404", description = "Voucher not found",
-                    content = @Content(mediaType = "text/plain")),
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "412", description = "The voucher changed since the ETag sent in If-Match"),
             @ApiResponse(responseCode = "500", description = "Internal server error",
-                    content = @Content(mediaType = "text/plain"))
+                    content = @Content(mediaType = "application/problem+json"))
     })
-    public ResponseEntity<?> deleteVoucherByVoucherId(@PathVariable String voucherId) {
-        try {
-            ObjectId id = new ObjectId(voucherId);
-            descontoService.deleteVoucher(id);
-            return ResponseEntity.ok("Cupom de desconto excluído com sucesso");
-        } catch (DataIntegrityViolationException e) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).body("Erro de integridade de dados: \n" + e.getMessage());
-        } catch (DataAccessException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao acessar o banco de dados: \n" + e.getMessage());
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao deletar cupom: \n" + e.getMessage());
-        }
+    public ResponseEntity<?> deleteVoucherByVoucherId(@PathVariable String voucherId,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        descontoService.deleteVoucher(ObjectIds.parse(voucherId), ifMatch(ifMatch));
+        return ResponseEntity.ok().eTag(descontoService.vouchersETag()).body("Cupom de desconto excluído com sucesso");
     }
 
     @DeleteMapping("/deleteByVoucherName/{voucherName}")
@@ -290,25 +239,17 @@ public class DescontoController {
                             mediaType = "application/json",
                             schema = @Schema(implementation = Desconto.class))),
             @ApiResponse(responseCode = "400", description = "Validation error",
-                    content = @Content(mediaType = "application/json")),
+                    content = @Content(mediaType = "application/problem+json")),
             @ApiResponse(responseCode = "404", description = "Voucher not found",
-                    content = @Content(mediaType = "text/plain")),
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "412", description = "The voucher changed since the ETag sent in If-Match"),
             @ApiResponse(responseCode = "500", description = "Internal server error",
-                    content = @Content(mediaType = "text/plain"))
+                    content = @Content(mediaType = "application/problem+json"))
     })
-    public ResponseEntity<String> deleteByVoucherName(@PathVariable String voucherName) {
-        try {
-            descontoService.deleteVoucherByVoucherName(voucherName);
-            return ResponseEntity.ok("Cupom de desconto excluído com sucesso");
-        } catch (DataIntegrityViolationException e) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).body("Erro de integridade de dados: \n" + e.getMessage());
-        } catch (DataAccessException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao acessar o banco de dados: \n" + e.getMessage());
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao deletar cupom de desconto: \n" + e.getMessage());
-        }
+    public ResponseEntity<String> deleteByVoucherName(@PathVariable String voucherName,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        descontoService.deleteVoucherByVoucherName(voucherName, ifMatch(ifMatch));
+        return ResponseEntity.ok().eTag(descontoService.vouchersETag()).body("Cupom de desconto excluído com sucesso");
     }
 
     @GetMapping("/findById/{voucherId}")
@@ -317,17 +258,19 @@ public class DescontoController {
             @ApiResponse(responseCode = "200", description = "Voucher found",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = Desconto.class))),
             @ApiResponse(responseCode = "404", description = "Voucher not found",
-                    content = @Content(mediaType = "text/plain")),
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag sent in If-None-Match"),
             @ApiResponse(responseCode = "500", description = "Internal server error",
-                    content = @Content(mediaType = "text/plain"))
+                    content = @Content(mediaType = "application/problem+json"))
     })
-    public ResponseEntity<?> findVoucherById(@Parameter @PathVariable String voucherId) {
-        try {
-            ObjectId id = new ObjectId(voucherId);
-            return ResponseEntity.ok(descontoService.findVouchersById(id));
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Formato inválido para ObjectId: " + voucherId);
+    public ResponseEntity<?> findVoucherById(@Parameter @PathVariable String voucherId, WebRequest request) {
+        // ETag do documento, não da coleção: é o que o If-Match do PATCH e do DELETE deste cupom espera
+        Desconto voucher = descontoService.findVouchersById(ObjectIds.parse(voucherId));
+        String etag = etag(voucher);
+        if (request.checkNotModified(etag)) {
+            return null;
         }
+        return ResponseEntity.ok().eTag(etag).body(voucher);
     }
 
     @GetMapping("/findByVoucherName/{voucherName}")
@@ -336,40 +279,177 @@ public class DescontoController {
             @ApiResponse(responseCode = "200", description = "Voucher found",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = Desconto.class))),
             @ApiResponse(responseCode = "404", description = "Voucher not found",
-                    content = @Content(mediaType = "text/plain")),
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag sent in If-None-Match"),
             @ApiResponse(responseCode = "500", description = "Internal server error",
-                    content = @Content(mediaType = "text/plain"))
+                    content = @Content(mediaType = "application/problem+json"))
     })
-    public ResponseEntity<?> searchByVoucherName(@PathVariable String voucherName) {
+    public ResponseEntity<?> searchByVoucherName(@PathVariable String voucherName, WebRequest request) {
+        // Busca antes do ETag, que é o do documento; o VoucherCache atende a maioria sem ir ao MongoDB
         List<Desconto> lVoucher = descontoService.findByVoucherName(voucherName);
-        if (!lVoucher.isEmpty()) {
-            return ResponseEntity.ok(lVoucher);
-        } else {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Cupom de desconto não encontrado.");
+        if (lVoucher.isEmpty()) {
+            throw new NotFoundException("Cupom de desconto não encontrado.");
+        }
+        String etag = etag(lVoucher.get(0));
+        if (request.checkNotModified(etag)) {
+            return null;
         }
+        return ResponseEntity.ok().eTag(etag).body(lVoucher);
+    }
+
+    @PostMapping("/lookup")
+    @Operation(summary = "Find several vouchers by voucherName", description = "Receives a JSON array of voucher names and returns an object mapping each name, as sent, to its voucher or to null when it does not exist. Resolved with a single indexed query. Accepts an admin token or the service token (SERVICE_TOKEN)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lookup done",
+                    content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "400", description = "Too many voucher names or a null entry",
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/problem+json"))
+    })
+    public ResponseEntity<?> lookupVouchers(@RequestBody List<String> cupons) {
+        return ResponseEntity.ok(descontoService.lookupVouchers(cupons));
+    }
+
+    @PostMapping("/{cupom}/redeem")
+    @Operation(summary = "Redeem a voucher", description = "Atomically consumes one use of the voucher, checking the usage limit and the expiry date in the same database operation")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Voucher redeemed successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Desconto.class))),
+            @ApiResponse(responseCode = "404", description = "Voucher not found",
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "409", description = "Voucher usage limit reached",
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "410", description = "Voucher expired",
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/problem+json"))
+    })
+    public ResponseEntity<?> redeemVoucher(@PathVariable String cupom) {
+        RedeemResult result = descontoService.redeemVoucher(cupom);
+        return switch (result.status()) {
+            case RESGATADO -> ResponseEntity.ok(result.voucher());
+            case NAO_ENCONTRADO -> ApiExceptionHandler.problem(HttpStatus.NOT_FOUND, "Cupom de desconto não encontrado.");
+            case EXPIRADO -> ApiExceptionHandler.problem(HttpStatus.GONE, "Cupom de desconto expirado.");
+            case ESGOTADO -> ApiExceptionHandler.problem(HttpStatus.CONFLICT, "Cupom de desconto esgotado.");
+        };
+    }
+
+    @GetMapping("/searchByVoucherName/{fragment}")
+    @Operation(summary = "Search vouchers by name fragment", description = "Returns all vouchers whose name contains the given fragment, ignoring case. Slower than findByVoucherName: it cannot use an index and scans the whole collection")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Vouchers found",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Desconto.class))),
+            @ApiResponse(responseCode = "404", description = "Voucher not found",
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag sent in If-None-Match"),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/problem+json"))
+    })
+    public ResponseEntity<?> searchByVoucherFragment(@PathVariable String fragment,
+                                                     @Parameter(description = "Comma separated fields to return (cupom, valorDesconto, fracaoDesconto, maxUsos, usos, expiraEm); id and versao are always returned") @RequestParam(required = false) String fields,
+                                                     WebRequest request) {
+        String etag = descontoService.vouchersETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        List<Desconto> lVoucher = descontoService.searchByVoucherFragment(fragment, fields);
+        if (lVoucher.isEmpty()) {
+            throw new NotFoundException("Cupom de desconto não encontrado.");
+        }
+        return ResponseEntity.ok().eTag(etag).body(lVoucher);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search vouchers by discount range", description = "Returns the vouchers whose valorDesconto is between min and max (both inclusive and optional), sorted by valorDesconto and limited to limit items. Served by the valor_desconto index")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Vouchers found, possibly none",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Desconto.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag sent in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Invalid range, sort order or fields",
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/problem+json"))
+    })
+    public ResponseEntity<?> searchByDiscountRange(
+            @Parameter(description = "Minimum valorDesconto, inclusive") @RequestParam(required = false) Double min,
+            @Parameter(description = "Maximum valorDesconto, inclusive") @RequestParam(required = false) Double max,
+            @Parameter(description = "Sort order by valorDesconto: asc (default) or desc") @RequestParam(required = false) String sort,
+            @Parameter(description = "Maximum number of vouchers; defaults to the page size") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Comma separated fields to return (cupom, valorDesconto, fracaoDesconto, maxUsos, usos, expiraEm); id and versao are always returned") @RequestParam(required = false) String fields,
+            WebRequest request) {
+        String etag = descontoService.vouchersETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(descontoService.searchByValor(min, max, sort, limit, fields));
+    }
+
+    @GetMapping("/search/histogram")
+    @Operation(summary = "Discount value histogram", description = "Counts the vouchers in each valorDesconto range and returns the total, minimum, maximum and average, in a single database round trip")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Histogram computed",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = DiscountHistogram.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag sent in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Invalid boundaries",
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/problem+json"))
+    })
+    public ResponseEntity<?> getDiscountHistogram(
+            @Parameter(description = "Comma separated range boundaries in increasing order, e.g. 0,5,10,25,50,100; defaults to steps of 10 from 0 to 100") @RequestParam(required = false) String boundaries,
+            WebRequest request) {
+        String etag = descontoService.vouchersETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(descontoService.valueHistogram(boundaries));
     }
 
     @GetMapping("/discounts/over10")
     @Operation(summary = "Retrieve discounts with percentage over 10%", description = "Returns a list of discounts where percentage is greater than 10, with percentage in decimal format")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Discounts retrieved successfully", content = @Content(
-                    mediaType = "application/json", schema = @Schema(implementation = Desconto.class))),
-            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "text/plain"))
+            @ApiResponse(responseCode = "200", description = "Discounts retrieved successfully", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = Desconto.class)),
+                    @Content(mediaType = "application/x-jackson-smile", schema = @Schema(implementation = Desconto.class)),
+                    @Content(mediaType = "application/cbor", schema = @Schema(implementation = Desconto.class))}),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag sent in If-None-Match"),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(mediaType = "application/problem+json"))
     })
-    public ResponseEntity<?> getDiscountsWithPercentageOver10() {
-        try {
-            List<Desconto> descontos = descontoService.findDiscountsWithPercentageOver10();
-            return ResponseEntity.ok(descontos);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao buscar cupons de desconto: " + e.getMessage());
+    public ResponseEntity<?> getDiscountsWithPercentageOver10(WebRequest request) {
+        String etag = descontoService.vouchersETag();
+        if (request.checkNotModified(etag)) {
+            return null;
         }
+        List<Desconto> descontos = descontoService.findDiscountsWithPercentageOver10();
+        return ResponseEntity.ok().eTag(etag).body(descontos);
+    }
+
+    @GetMapping("/cache/stats")
+    @Operation(summary = "Voucher cache statistics", description = "Returns hit, miss and eviction counters of the voucher lookup cache")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully",
+                    content = @Content(mediaType = "application/json"))
+    })
+    public Map<String, Long> getVoucherCacheStats() {
+        return descontoService.voucherCacheStats();
+    }
+
+    private static DocumentVersion ifMatch(String ifMatch) {
+        return DocumentVersion.fromIfMatch(CollectionVersions.DESCONTO, ifMatch);
+    }
+
+    private static String etag(Desconto voucher) {
+        return DocumentVersion.of(voucher.getId(), voucher.getVersao()).etag(CollectionVersions.DESCONTO);
     }
 
-    public Map<String, String> validate(BindingResult resultado) {
-        Map<String, String> errors = new HashMap<>();
-        for (FieldError error : resultado.getFieldErrors()) {
-            errors.put(error.getField(), error.getDefaultMessage());
+    private void validate(DescontoUpdate changes) {
+        DataBinder binder = new DataBinder(changes);
+        binder.setValidator(validator);
+        binder.validate();
+        Map<String, String> errors = InvalidFieldsException.fieldErrors(binder.getBindingResult());
+        if (!errors.isEmpty()) {
+            throw new InvalidFieldsException(errors);
         }
-        return errors;
     }
 }
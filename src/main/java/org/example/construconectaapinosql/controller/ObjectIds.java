@@ -0,0 +1,18 @@
+package org.example.construconectaapinosql.controller;
+
+import org.bson.types.ObjectId;
+
+/**
+ * Ids recebidos na URL: formato inválido responde 400 pelo {@link ApiExceptionHandler}.
+ */
+final class ObjectIds {
+    private ObjectIds() {
+    }
+
+    static ObjectId parse(String value) {
+        if (!ObjectId.isValid(value)) {
+            throw new IllegalArgumentException("Formato inválido para ObjectId: " + value);
+        }
+        return new ObjectId(value);
+    }
+}
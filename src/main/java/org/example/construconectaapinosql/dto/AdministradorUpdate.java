@@ -0,0 +1,46 @@
+package org.example.construconectaapinosql.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Pattern;
+
+import java.util.Map;
+
+/**
+ * Alteração parcial de um administrador: só os campos não nulos vão para o $set.
+ */
+public record AdministradorUpdate(
+        @Pattern(regexp = "(?s).*\\S.*", message = "Usuário deve ser informado")
+        @Schema(description = "Usuario administrador", example = "Controo")
+        String usuario,
+        @Pattern(regexp = "(?s).*\\S.*", message = "E-mail deve ser informado")
+        @Schema(description = "Email do administrador", example = "admin@admin.admin")
+        String email,
+        @Pattern(regexp = "(?s).*\\S.*", message = "Senha deve ser informada")
+        @Schema(description = "Senha do administrador", example = "admin123")
+        String senha
+) {
+    // Converte o corpo do PATCH, recusando campos desconhecidos e tipos errados com a mensagem da API
+    public static AdministradorUpdate fromMap(Map<String, Object> updates) {
+        if (updates == null || updates.isEmpty()) {
+            throw new IllegalArgumentException("Nenhum campo informado para atualização.");
+        }
+        String usuario = null;
+        String email = null;
+        String senha = null;
+        for (Map.Entry<String, Object> entry : updates.entrySet()) {
+            String field = entry.getKey();
+            if (!field.equals("usuario") && !field.equals("email") && !field.equals("senha")) {
+                throw new IllegalArgumentException("Campo '" + field + "' não é válido para atualização.");
+            }
+            if (!(entry.getValue() instanceof String value)) {
+                throw new IllegalArgumentException("Formato inválido para o campo '" + field + "'. Deve ser um texto.");
+            }
+            switch (field) {
+                case "usuario" -> usuario = value;
+                case "email" -> email = value;
+                default -> senha = value;
+            }
+        }
+        return new AdministradorUpdate(usuario, email, senha);
+    }
+}
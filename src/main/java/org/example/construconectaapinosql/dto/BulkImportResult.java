@@ -0,0 +1,17 @@
+package org.example.construconectaapinosql.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record BulkImportResult(
+        @Schema(description = "Itens lidos do corpo da requisição")
+        int total,
+        @Schema(description = "Itens gravados")
+        int inserted,
+        @Schema(description = "Itens rejeitados")
+        int failed,
+        @Schema(description = "Resultado de cada item rejeitado; os índices que não aparecem aqui foram gravados")
+        List<BulkItemResult> failures
+) {
+}
@@ -0,0 +1,15 @@
+package org.example.construconectaapinosql.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record BulkItemResult(
+        @Schema(description = "Posição do item no corpo da requisição, começando em 0")
+        int index,
+        @Schema(description = "Cupom informado no item, se houver", example = "VAIDE10")
+        String cupom,
+        @Schema(description = "invalido, duplicado ou erro", example = "duplicado")
+        String status,
+        @Schema(description = "Motivo da rejeição")
+        String erro
+) {
+}
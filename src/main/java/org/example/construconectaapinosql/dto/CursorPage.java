@@ -0,0 +1,13 @@
+package org.example.construconectaapinosql.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record CursorPage<T>(
+        @Schema(description = "Itens da página, em ordem de _id")
+        List<T> items,
+        @Schema(description = "Token da próxima página (passar em ?next=); nulo na última página", example = "5f6b5f7b5f6b5f6b5f6b5f6b")
+        String next
+) {
+}
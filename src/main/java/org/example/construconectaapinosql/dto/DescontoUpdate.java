@@ -0,0 +1,68 @@
+package org.example.construconectaapinosql.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+/**
+ * Alteração parcial de um cupom: só os campos não nulos vão para o $set.
+ */
+public record DescontoUpdate(
+        @Pattern(regexp = "(?s).*\\S.*", message = "Cupom de desconto deve ser informado")
+        @Schema(description = "Cupom de desconto", example = "VAIDE10")
+        String cupom,
+        @Schema(description = "Valor do desconto", example = "10.0")
+        Double valorDesconto,
+        @Positive(message = "Número máximo de usos deve ser maior que zero")
+        @Schema(description = "Número máximo de resgates", example = "100")
+        Integer maxUsos,
+        @Schema(description = "Fim da validade do cupom", example = "2030-12-31T23:59:59Z")
+        Instant expiraEm
+) {
+    // Converte o corpo do PATCH, recusando campos desconhecidos e tipos errados com a mensagem da API
+    public static DescontoUpdate fromMap(Map<String, Object> updates) {
+        if (updates == null || updates.isEmpty()) {
+            throw new IllegalArgumentException("Nenhum campo informado para atualização.");
+        }
+        String cupom = null;
+        Double valorDesconto = null;
+        Integer maxUsos = null;
+        Instant expiraEm = null;
+        for (Map.Entry<String, Object> entry : updates.entrySet()) {
+            Object value = entry.getValue();
+            switch (entry.getKey()) {
+                case "cupom" -> {
+                    if (!(value instanceof String s)) {
+                        throw new IllegalArgumentException("Formato inválido para o campo 'cupom'. Deve ser um texto.");
+                    }
+                    cupom = s;
+                }
+                case "valorDesconto" -> {
+                    if (!(value instanceof Number n)) {
+                        throw new IllegalArgumentException("Formato inválido para o campo 'valorDesconto'. Deve ser um número.");
+                    }
+                    valorDesconto = n.doubleValue();
+                }
+                case "maxUsos" -> {
+                    if (!(value instanceof Integer n)) {
+                        throw new IllegalArgumentException("Formato inválido para o campo 'maxUsos'. Deve ser um número inteiro.");
+                    }
+                    maxUsos = n;
+                }
+                case "expiraEm" -> {
+                    try {
+                        expiraEm = Instant.parse((String) value);
+                    } catch (ClassCastException | NullPointerException | DateTimeParseException e) {
+                        throw new IllegalArgumentException("Formato inválido para o campo 'expiraEm'. Use uma data ISO-8601, ex.: 2030-12-31T23:59:59Z.");
+                    }
+                }
+                default -> throw new IllegalArgumentException("Campo '" + entry.getKey() + "' não é válido para atualização.");
+            }
+        }
+        return new DescontoUpdate(cupom, valorDesconto, maxUsos, expiraEm);
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.construconectaapinosql.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record DiscountHistogram(
+        @Schema(description = "Cupons por faixa de valorDesconto, na ordem dos limites pedidos")
+        List<Bucket> buckets,
+        @Schema(description = "Cupons com valorDesconto fora de todas as faixas")
+        long outside,
+        @Schema(description = "Cupons com valorDesconto informado")
+        long total,
+        @Schema(description = "Menor valorDesconto; nulo sem cupons", example = "5.0")
+        Double min,
+        @Schema(description = "Maior valorDesconto; nulo sem cupons", example = "50.0")
+        Double max,
+        @Schema(description = "Média de valorDesconto; nula sem cupons", example = "17.5")
+        Double average
+) {
+    public record Bucket(
+            @Schema(description = "Início da faixa, inclusivo", example = "10.0")
+            double from,
+            @Schema(description = "Fim da faixa, exclusivo", example = "20.0")
+            double to,
+            @Schema(description = "Cupons na faixa", example = "42")
+            long count
+    ) {
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.construconectaapinosql.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+
+public record LoginRequest(
+        @NotBlank(message = "Usuário ou e-mail deve ser informado")
+        @Schema(description = "Usuário ou e-mail do administrador", example = "Controo")
+        String login,
+        @NotBlank(message = "Senha deve ser informada")
+        @Schema(description = "Senha do administrador", example = "admin123")
+        String senha
+) {
+}
@@ -0,0 +1,15 @@
+package org.example.construconectaapinosql.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+public record LoginResponse(
+        @Schema(description = "JWT a ser enviado em 'Authorization: Bearer <token>' nas requisições de escrita")
+        String token,
+        @Schema(description = "Tipo do token", example = "Bearer")
+        String tipo,
+        @Schema(description = "Momento em que o token expira", example = "2030-12-31T23:59:59Z")
+        Instant expiraEm
+) {
+}
@@ -0,0 +1,12 @@
+package org.example.construconectaapinosql.dto;
+
+import org.example.construconectaapinosql.model.Desconto;
+
+public record RedeemResult(Status status, Desconto voucher) {
+    public enum Status {
+        RESGATADO,
+        NAO_ENCONTRADO,
+        EXPIRADO,
+        ESGOTADO
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.construconectaapinosql.exception;
+
+/**
+ * Gravação recusada pelo índice único: cupom, usuário ou e-mail já usado por outro documento (409).
+ */
+public class AlreadyExistsException extends DomainException {
+    public AlreadyExistsException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
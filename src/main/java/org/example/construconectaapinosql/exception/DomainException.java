@@ -0,0 +1,16 @@
+package org.example.construconectaapinosql.exception;
+
+/**
+ * Base dos erros esperados das regras de negócio (não encontrado, já existe, campos inválidos).
+ * Não guarda stack trace: são respostas normais da API, não falhas, e montar o trace a cada cupom
+ * inexistente custaria mais que a própria busca. O {@code ApiExceptionHandler} os converte na resposta HTTP.
+ */
+public abstract class DomainException extends RuntimeException {
+    protected DomainException(String message) {
+        this(message, null);
+    }
+
+    protected DomainException(String message, Throwable cause) {
+        super(message, cause, false, false);
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.construconectaapinosql.exception;
+
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Campos que não passaram na validação, com a mensagem de cada um (400).
+ */
+public class InvalidFieldsException extends DomainException {
+    private final Map<String, String> errors;
+
+    public InvalidFieldsException(Map<String, String> errors) {
+        super("Erros de validação.");
+        this.errors = Map.copyOf(errors);
+    }
+
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+
+    public static Map<String, String> fieldErrors(BindingResult result) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (FieldError error : result.getFieldErrors()) {
+            errors.putIfAbsent(error.getField(), error.getDefaultMessage());
+        }
+        return errors;
+    }
+}
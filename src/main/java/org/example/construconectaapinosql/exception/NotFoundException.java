@@ -0,0 +1,10 @@
+package org.example.construconectaapinosql.exception;
+
+/**
+ * Documento procurado não existe (404).
+ */
+public class NotFoundException extends DomainException {
+    public NotFoundException(String message) {
+        super(message);
+    }
+}
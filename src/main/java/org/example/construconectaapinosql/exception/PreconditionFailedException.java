@@ -0,0 +1,10 @@
+package org.example.construconectaapinosql.exception;
+
+/**
+ * O documento existe, mas não está mais na versão do ETag enviado em If-Match (412).
+ */
+public class PreconditionFailedException extends DomainException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
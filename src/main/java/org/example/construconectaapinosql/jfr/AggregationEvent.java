@@ -0,0 +1,11 @@
+package org.example.construconectaapinosql.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("construconecta.Aggregation")
+@Label("Aggregation")
+@Description("Range searches, histograms and other queries that scan or aggregate the collection")
+public class AggregationEvent extends ServiceEvent {
+}
@@ -0,0 +1,38 @@
+package org.example.construconectaapinosql.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Acerto ou falta no cache de cupons. Evento instantâneo e muito frequente: desligado no
+ * {@code jfr/construconecta.jfc}, para ligar só ao investigar o cache.
+ */
+@Name("construconecta.CacheAccess")
+@Label("Cache Access")
+@Description("Hit or miss in the voucher lookup cache")
+@Category({"ConstruConecta", "Cache"})
+@StackTrace(false)
+public class CacheAccessEvent extends Event {
+    @Label("Cache")
+    String cache;
+
+    @Label("Key")
+    String key;
+
+    @Label("Hit")
+    boolean hit;
+
+    public static void record(String cache, String key, boolean hit) {
+        CacheAccessEvent event = new CacheAccessEvent();
+        if (event.shouldCommit()) {
+            event.cache = cache;
+            event.key = key;
+            event.hit = hit;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.construconectaapinosql.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("construconecta.Delete")
+@Label("Delete")
+@Description("Deletes by id, coupon, user or e-mail")
+public class DeleteEvent extends ServiceEvent {
+}
@@ -0,0 +1,11 @@
+package org.example.construconectaapinosql.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("construconecta.Lookup")
+@Label("Lookup")
+@Description("Exact lookups by id, coupon, user or e-mail, including batch coupon lookups")
+public class LookupEvent extends ServiceEvent {
+}
@@ -0,0 +1,11 @@
+package org.example.construconectaapinosql.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("construconecta.Save")
+@Label("Save")
+@Description("Inserts and updates, including the uniqueness check done by the unique indexes")
+public class SaveEvent extends ServiceEvent {
+}
@@ -0,0 +1,42 @@
+package org.example.construconectaapinosql.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base dos eventos JFR das operações dos services. Uso: criar o evento e chamar {@code begin()} antes da
+ * operação e {@link #complete} no fim. Os campos só são preenchidos se o evento vai ser gravado, então sem
+ * gravação em andamento (ou abaixo do threshold) o custo é só ler o relógio duas vezes.
+ * Configuração sugerida em {@code jfr/construconecta.jfc}.
+ */
+@Category({"ConstruConecta", "Services"})
+@StackTrace(false)
+public abstract class ServiceEvent extends Event {
+    public static final String DESCONTO = "desconto";
+    public static final String ADMINISTRADOR = "administrador";
+
+    @Label("Collection")
+    String collection;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Key")
+    String key;
+
+    @Label("Result Size")
+    int resultSize;
+
+    public void complete(String collection, String operation, Object key, int resultSize) {
+        end();
+        if (shouldCommit()) {
+            this.collection = collection;
+            this.operation = operation;
+            this.key = key == null ? null : key.toString();
+            this.resultSize = resultSize;
+            commit();
+        }
+    }
+}
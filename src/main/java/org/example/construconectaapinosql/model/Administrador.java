@@ -1,12 +1,19 @@
 package org.example.construconectaapinosql.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
 import org.bson.types.ObjectId;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
+import java.util.Locale;
+
 @Document
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class Administrador {
     @Id
     @Field("_id")
@@ -21,10 +28,28 @@ public class Administrador {
     @Schema(description = "Email do administrador", example = "admin@admin.admin")
     private String email;
 
+    // Usuário e e-mail normalizados (minúsculos, sem espaços nas pontas), com índice único
+    @Field("usuario_key")
+    @JsonIgnore
+    private String usuarioKey;
+
+    @Field("email_key")
+    @JsonIgnore
+    private String emailKey;
+
+    // Gravada como hash bcrypt; aceita na entrada, nunca devolvida nas respostas
     @Field
-    @Schema(description = "Senha do administrador", example = "admin123")
+    @NotBlank(message = "Senha deve ser informada")
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    @Schema(description = "Senha do administrador", example = "admin123", accessMode = Schema.AccessMode.WRITE_ONLY)
     private String senha;
 
+    // Incrementada com $inc a cada atualização; vira o ETag do documento (DocumentVersion)
+    @Field("versao")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(description = "Versão do documento, incrementada a cada alteração", example = "0", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long versao;
+
     public Administrador() {
     }
 
@@ -32,12 +57,17 @@ public class Administrador {
         return id != null ? id.toHexString() : null;
     }
 
+    public void setId(ObjectId id) {
+        this.id = id;
+    }
+
     public String getUsuario() {
         return usuario;
     }
 
     public void setUsuario(String usuario) {
         this.usuario = usuario;
+        this.usuarioKey = normalizeKey(usuario);
     }
 
     public String getEmail() {
@@ -46,6 +76,19 @@ public class Administrador {
 
     public void setEmail(String email) {
         this.email = email;
+        this.emailKey = normalizeKey(email);
+    }
+
+    public String getUsuarioKey() {
+        return usuarioKey;
+    }
+
+    public String getEmailKey() {
+        return emailKey;
+    }
+
+    public static String normalizeKey(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
     }
 
     public String getSenha() {
@@ -56,13 +99,16 @@ public class Administrador {
         this.senha = senha;
     }
 
+    public Long getVersao() {
+        return versao;
+    }
+
     @Override
     public String toString() {
         return "Administrador{" +
                 "id=" + id +
                 ", usuario='" + usuario + '\'' +
                 ", email='" + email + '\'' +
-                ", senha='" + senha + '\'' +
                 '}';
     }
 }
@@ -1,14 +1,22 @@
 package org.example.construconectaapinosql.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import org.bson.types.ObjectId;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
+import java.time.Instant;
+import java.util.Locale;
+
 @Document
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class Desconto {
     @Id
     @Field("_id")
@@ -20,14 +28,58 @@ public class Desconto {
     @Schema(description = "Cupom de desconto", example = "VAIDE10")
     private String cupom;
 
+    // Cupom normalizado (maiúsculo, sem espaços nas pontas), com índice único; usado nas buscas exatas
+    @Field("cupom_key")
+    @JsonIgnore
+    private String cupomKey;
+
     @Field("valor_desconto")
     @NotNull(message = "Valor do desconto deve ser informado")
     @Schema(description = "Valor do desconto", example = "10.0")
     private Double valorDesconto;
 
+    // valorDesconto / 100, gravado junto para as leituras não calcularem a fração documento a documento
+    @Field("fracao_desconto")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(description = "Valor do desconto em fração decimal (valorDesconto / 100)", example = "0.1", accessMode = Schema.AccessMode.READ_ONLY)
+    private Double fracaoDesconto;
+
+    @Field("max_usos")
+    @Positive(message = "Número máximo de usos deve ser maior que zero")
+    @Schema(description = "Número máximo de resgates; vazio para ilimitado", example = "100")
+    private Integer maxUsos;
+
+    // Só é alterado pelo resgate (POST /discounts/{cupom}/redeem), com $inc atômico no banco
+    @Field("usos")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(description = "Quantidade de resgates já feitos", example = "0", accessMode = Schema.AccessMode.READ_ONLY)
+    private Integer usos;
+
+    @Field("expira_em")
+    @Schema(description = "Fim da validade do cupom; vazio para sem prazo", example = "2030-12-31T23:59:59Z")
+    private Instant expiraEm;
+
+    // Incrementada com $inc a cada atualização e resgate; vira o ETag do documento (DocumentVersion)
+    @Field("versao")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(description = "Versão do documento, incrementada a cada alteração", example = "0", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long versao;
+
     public Desconto() {
     }
 
+    public Desconto(Desconto other) {
+        this.id = other.id;
+        this.cupom = other.cupom;
+        this.cupomKey = other.cupomKey;
+        this.valorDesconto = other.valorDesconto;
+        this.fracaoDesconto = other.fracaoDesconto;
+        this.maxUsos = other.maxUsos;
+        this.usos = other.usos;
+        this.expiraEm = other.expiraEm;
+        this.versao = other.versao;
+    }
+
     public String getId() {
         return id != null ? id.toHexString() : null;
     }
@@ -42,6 +94,15 @@ public class Desconto {
 
     public void setCupom(String cupom) {
         this.cupom = cupom;
+        this.cupomKey = normalizeCupom(cupom);
+    }
+
+    public String getCupomKey() {
+        return cupomKey;
+    }
+
+    public static String normalizeCupom(String cupom) {
+        return cupom == null ? null : cupom.trim().toUpperCase(Locale.ROOT);
     }
 
     public Double getValorDesconto() {
@@ -50,6 +111,39 @@ public class Desconto {
 
     public void setValorDesconto(Double valorDesconto) {
         this.valorDesconto = valorDesconto;
+        this.fracaoDesconto = toFracao(valorDesconto);
+    }
+
+    public Double getFracaoDesconto() {
+        return fracaoDesconto;
+    }
+
+    public static Double toFracao(Double valorDesconto) {
+        return valorDesconto == null ? null : valorDesconto / 100;
+    }
+
+    public Integer getMaxUsos() {
+        return maxUsos;
+    }
+
+    public void setMaxUsos(Integer maxUsos) {
+        this.maxUsos = maxUsos;
+    }
+
+    public Integer getUsos() {
+        return usos;
+    }
+
+    public Instant getExpiraEm() {
+        return expiraEm;
+    }
+
+    public void setExpiraEm(Instant expiraEm) {
+        this.expiraEm = expiraEm;
+    }
+
+    public Long getVersao() {
+        return versao;
     }
 
     @Override
@@ -58,6 +152,9 @@ public class Desconto {
                 "id='" + id + '\'' +
                 ", cupom='" + cupom + '\'' +
                 ", valorDesconto='" + valorDesconto + '\'' +
+                ", maxUsos=" + maxUsos +
+                ", usos=" + usos +
+                ", expiraEm=" + expiraEm +
                 '}';
     }
 }
@@ -0,0 +1,68 @@
+package org.example.construconectaapinosql.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limite de requisições por cliente com GCRA (generic cell rate algorithm), equivalente a um token bucket
+ * mas guardando um único número por cliente: o instante teórico da próxima chegada (TAT).
+ * Sem locks: cada cliente é um {@link AtomicLong} atualizado com compareAndSet.
+ */
+public class GcraRateLimiter {
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, AtomicLong> theoreticalArrivals = new ConcurrentHashMap<>();
+
+    public GcraRateLimiter(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, System::nanoTime);
+    }
+
+    public GcraRateLimiter(double permitsPerSecond, int burst, LongSupplier clock) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("permitsPerSecond deve ser maior que zero e burst pelo menos 1");
+        }
+        this.emissionIntervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstNanos = emissionIntervalNanos * burst;
+        this.clock = clock;
+    }
+
+    /**
+     * Consome uma permissão do cliente. Retorna 0 se a requisição pode seguir,
+     * ou quantos nanossegundos faltam para a próxima permissão.
+     */
+    public long tryAcquire(String client) {
+        long now = clock.getAsLong();
+        AtomicLong arrival = theoreticalArrivals.get(client);
+        if (arrival == null) {
+            arrival = theoreticalArrivals.computeIfAbsent(client, key -> new AtomicLong(now));
+        }
+        while (true) {
+            long tat = arrival.get();
+            long next = Math.max(tat, now) + emissionIntervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Remove os clientes parados há mais de {@code idleNanos}: com o balde cheio de novo, esquecê-los
+     * não muda nada para eles e impede que o mapa cresça com cada endereço que já passou por aqui.
+     */
+    public int evictIdle(long idleNanos) {
+        long limit = clock.getAsLong() - idleNanos;
+        int before = theoreticalArrivals.size();
+        theoreticalArrivals.values().removeIf(arrival -> arrival.get() < limit);
+        return before - theoreticalArrivals.size();
+    }
+
+    public int size() {
+        return theoreticalArrivals.size();
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.construconectaapinosql.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Recusa com 429 as requisições acima do limite da rota para o endereço do cliente, antes da autenticação
+ * e dos services. Atrás de proxy, configure {@code server.forward-headers-strategy} para o endereço real
+ * vir do X-Forwarded-For.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "app.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+// Depois da observação HTTP, para as respostas 429 também aparecerem em http.server.requests
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RateLimitFilter extends OncePerRequestFilter {
+    static final String TOO_MANY_REQUESTS_MESSAGE = "Muitas requisições. Tente novamente em alguns segundos.";
+
+    private final List<LimitedRoute> routes;
+    private final long idleTimeoutNanos;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.idleTimeoutNanos = properties.idleTimeout().toNanos();
+        this.routes = properties.routes().stream()
+                .map(route -> new LimitedRoute(route, meterRegistry))
+                .toList();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        LimitedRoute route = match(request);
+        if (route != null) {
+            long waitNanos = route.limiter.tryAcquire(request.getRemoteAddr());
+            if (waitNanos > 0) {
+                route.rejected.increment();
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+                response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+                response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+                response.getWriter().write(TOO_MANY_REQUESTS_MESSAGE);
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private LimitedRoute match(HttpServletRequest request) {
+        if (routes.isEmpty()) {
+            return null;
+        }
+        PathContainer path = PathContainer.parsePath(request.getServletPath());
+        for (LimitedRoute route : routes) {
+            if (route.matches(request.getMethod(), path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval:PT1M}")
+    public void evictIdleClients() {
+        for (LimitedRoute route : routes) {
+            route.limiter.evictIdle(idleTimeoutNanos);
+        }
+    }
+
+    private static final class LimitedRoute {
+        private final PathPattern pattern;
+        private final Set<String> methods;
+        private final GcraRateLimiter limiter;
+        private final Counter rejected;
+
+        LimitedRoute(RateLimitProperties.Route route, MeterRegistry meterRegistry) {
+            this.pattern = PathPatternParser.defaultInstance.parse(route.pattern());
+            this.methods = route.methods().stream()
+                    .map(method -> method.toUpperCase(Locale.ROOT))
+                    .collect(Collectors.toUnmodifiableSet());
+            this.limiter = new GcraRateLimiter(route.permitsPerSecond(), route.burst());
+            this.rejected = Counter.builder("app.rate-limit.rejected")
+                    .tag("route", route.pattern())
+                    .register(meterRegistry);
+            Gauge.builder("app.rate-limit.clients", limiter, GcraRateLimiter::size)
+                    .description("Clientes com estado guardado no limitador da rota")
+                    .tag("route", route.pattern())
+                    .register(meterRegistry);
+        }
+
+        boolean matches(String method, PathContainer path) {
+            return (methods.isEmpty() || methods.contains(method)) && pattern.matches(path);
+        }
+    }
+}
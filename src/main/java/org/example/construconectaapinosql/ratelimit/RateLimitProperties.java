@@ -0,0 +1,26 @@
+package org.example.construconectaapinosql.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Limites por rota de {@code app.rate-limit.routes}. Vale a primeira rota cujo padrão (sintaxe do
+ * {@code @RequestMapping}, ex. {@code /discounts/findByVoucherName/{voucherName}}) e método casarem; sem métodos, vale para todos.
+ */
+@ConfigurationProperties("app.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("PT10M") Duration idleTimeout,
+        @DefaultValue List<Route> routes
+) {
+    public record Route(
+            String pattern,
+            @DefaultValue List<String> methods,
+            double permitsPerSecond,
+            @DefaultValue("1") int burst
+    ) {
+    }
+}
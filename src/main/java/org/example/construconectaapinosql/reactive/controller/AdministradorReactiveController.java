@@ -0,0 +1,192 @@
+package org.example.construconectaapinosql.reactive.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import org.bson.types.ObjectId;
+import org.example.construconectaapinosql.cache.CollectionVersions;
+import org.example.construconectaapinosql.dto.AdministradorUpdate;
+import org.example.construconectaapinosql.dto.LoginRequest;
+import org.example.construconectaapinosql.exception.InvalidFieldsException;
+import org.example.construconectaapinosql.exception.PreconditionFailedException;
+import org.example.construconectaapinosql.model.Administrador;
+import org.example.construconectaapinosql.reactive.service.AdministradorReactiveService;
+import org.example.construconectaapinosql.repository.DocumentVersion;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.DataBinder;
+import org.springframework.validation.Validator;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiFunction;
+
+/**
+ * Mesmas rotas de {@code /admin} da versão servlet, sem bloquear threads enquanto o MongoDB responde.
+ */
+@RestController
+@RequestMapping("/admin")
+@Profile("reactive")
+public class AdministradorReactiveController {
+    private final AdministradorReactiveService administradorService;
+    private final Validator validator;
+
+    public AdministradorReactiveController(AdministradorReactiveService administradorService, Validator validator) {
+        this.administradorService = administradorService;
+        this.validator = validator;
+    }
+
+    @GetMapping("/admins")
+    @Operation(summary = "Show all admins", description = "Returns a list of all available admins")
+    public Flux<Administrador> getAdmins(ServerWebExchange exchange) {
+        if (exchange.checkNotModified(administradorService.adminsETag())) {
+            return null;
+        }
+        return administradorService.findAllAdmins();
+    }
+
+    @GetMapping(value = "/admins", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all admins", description = "Streams every admin as newline-delimited JSON")
+    public Flux<Administrador> streamAdmins() {
+        return administradorService.findAllAdmins();
+    }
+
+    @PostMapping("/login")
+    @Operation(summary = "Admin login", description = "Checks the password and returns a signed JWT. Send it as 'Authorization: Bearer <token>' on every POST, PATCH and DELETE under /admin and /discounts")
+    public Mono<ResponseEntity<?>> login(@Valid @RequestBody LoginRequest request) {
+        return administradorService.login(request.login(), request.senha())
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Usuário ou senha inválidos."))
+                .onErrorResume(RejectedExecutionException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .body("Muitas verificações de senha em andamento. Tente novamente em instantes.")));
+    }
+
+    @PostMapping("/add")
+    @Operation(summary = "Add a new admin", description = "Create a new admin and saves it to the database")
+    public Mono<ResponseEntity<?>> addAdmin(@Valid @RequestBody Administrador admin) {
+        return administradorService.saveAdmins(admin)
+                .<ResponseEntity<?>>map(saved -> ResponseEntity.status(HttpStatus.CREATED).body(saved))
+                .onErrorResume(DuplicateKeyException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage())));
+    }
+
+    @PatchMapping("/update/{adminId}")
+    @Operation(summary = "Update a admin", description = "Updates only the informed fields (usuario, email, senha) of the admin with the specified adminId, in a single database operation")
+    public Mono<ResponseEntity<?>> updateAdminById(@PathVariable String adminId,
+                                                   @RequestBody Map<String, Object> updates,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (!ObjectId.isValid(adminId)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Formato inválido para ObjectId: " + adminId));
+        }
+        return update(updates, ifMatch, (expected, changes) -> administradorService.updateAdmin(new ObjectId(adminId), expected, changes),
+                "O administrador com adminId " + adminId + " foi atualizado com sucesso.");
+    }
+
+    @PatchMapping("/updateByUser/{userAdm}")
+    @Operation(summary = "Update a admin", description = "Updates only the informed fields (usuario, email, senha) of the admin with the specified userAdm, in a single database operation")
+    public Mono<ResponseEntity<?>> updateAdminByUser(@PathVariable String userAdm,
+                                                     @RequestBody Map<String, Object> updates,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return update(updates, ifMatch, (expected, changes) -> administradorService.updateAdminByUsuario(userAdm, expected, changes),
+                "O administrador com usuario " + userAdm + " foi atualizado com sucesso.");
+    }
+
+    @PatchMapping("/updateByEmail/{email}")
+    @Operation(summary = "Update a admin", description = "Updates only the informed fields (usuario, email, senha) of the admin with the specified email, in a single database operation")
+    public Mono<ResponseEntity<?>> updateAdminByEmail(@PathVariable String email,
+                                                      @RequestBody Map<String, Object> updates,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return update(updates, ifMatch, (expected, changes) -> administradorService.updateAdminByEmail(email, expected, changes),
+                "O administrador com e-mail " + email + " foi atualizado com sucesso.");
+    }
+
+    @GetMapping("/findByUserAdmin/{userAdm}")
+    @Operation(summary = "Find admin by userAdm", description = "Returns the admin with the specified userAdm")
+    public Mono<ResponseEntity<?>> searchByUserAdm(@PathVariable String userAdm) {
+        return administradorService.findByUsuario(userAdm)
+                .collectList()
+                .map(admins -> admins.isEmpty()
+                        ? ResponseEntity.status(HttpStatus.NOT_FOUND).body("Administrador não encontrado.")
+                        : ResponseEntity.ok().eTag(etag(admins.get(0))).body(admins));
+    }
+
+    @GetMapping("/findByEmailAdmin/{email}")
+    @Operation(summary = "Find admin by email", description = "Returns the admin with the specified email")
+    public Mono<ResponseEntity<?>> searchByEmailAdm(@PathVariable String email) {
+        return administradorService.findByEmail(email)
+                .collectList()
+                .map(admins -> admins.isEmpty()
+                        ? ResponseEntity.status(HttpStatus.NOT_FOUND).body("Administrador não encontrado.")
+                        : ResponseEntity.ok().eTag(etag(admins.get(0))).body(admins));
+    }
+
+    // Uma única rota de exclusão: o formato da chave diz se é id, e-mail ou usuário
+    @DeleteMapping("/delete/{key}")
+    @Operation(summary = "Delete a admin", description = "Deletes the admin with the specified adminId, email or userAdm")
+    public Mono<ResponseEntity<String>> deleteAdmin(@PathVariable String key,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        DocumentVersion expected;
+        try {
+            expected = DocumentVersion.fromIfMatch(CollectionVersions.ADMINISTRADOR, ifMatch);
+        } catch (PreconditionFailedException e) {
+            return Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage()));
+        }
+        Mono<Boolean> deleted;
+        if (ObjectId.isValid(key)) {
+            deleted = administradorService.deleteAdminsById(new ObjectId(key), expected);
+        } else if (key.contains("@")) {
+            deleted = administradorService.deleteAdminsByEmail(key, expected);
+        } else {
+            deleted = administradorService.deleteAdminsByUser(key, expected);
+        }
+        return deleted.map(ok -> ok
+                        ? ResponseEntity.ok("Administrador excluído com sucesso")
+                        : ResponseEntity.status(HttpStatus.NOT_FOUND).body("Administrador nao encontrado.: [" + key + "]"))
+                .onErrorResume(PreconditionFailedException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage())));
+    }
+
+    // Mesma ordem da versão servlet: corpo, validação e o findAndModify com a versão do If-Match no filtro
+    private Mono<ResponseEntity<?>> update(Map<String, Object> updates, String ifMatch,
+                                           BiFunction<DocumentVersion, AdministradorUpdate, Mono<Administrador>> operation, String message) {
+        AdministradorUpdate changes;
+        DocumentVersion expected;
+        try {
+            changes = AdministradorUpdate.fromMap(updates);
+            expected = DocumentVersion.fromIfMatch(CollectionVersions.ADMINISTRADOR, ifMatch);
+        } catch (PreconditionFailedException e) {
+            return Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest().body(e.getMessage()));
+        }
+        DataBinder binder = new DataBinder(changes);
+        binder.setValidator(validator);
+        binder.validate();
+        Map<String, String> errors = InvalidFieldsException.fieldErrors(binder.getBindingResult());
+        if (!errors.isEmpty()) {
+            return Mono.just(ResponseEntity.badRequest().body(errors));
+        }
+        return operation.apply(expected, changes)
+                .<ResponseEntity<?>>map(updated -> ResponseEntity.ok().eTag(etag(updated)).body(message))
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).body("Administrador não encontrado."))
+                .onErrorResume(DuplicateKeyException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage())))
+                .onErrorResume(PreconditionFailedException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage())))
+                .onErrorResume(RejectedExecutionException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .body("Muitas verificações de senha em andamento. Tente novamente em instantes.")));
+    }
+
+    private static String etag(Administrador admin) {
+        return DocumentVersion.of(admin.getId(), admin.getVersao()).etag(CollectionVersions.ADMINISTRADOR);
+    }
+}
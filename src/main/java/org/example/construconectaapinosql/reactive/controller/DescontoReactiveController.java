@@ -0,0 +1,187 @@
+package org.example.construconectaapinosql.reactive.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import org.bson.types.ObjectId;
+import org.example.construconectaapinosql.cache.CollectionVersions;
+import org.example.construconectaapinosql.dto.DescontoUpdate;
+import org.example.construconectaapinosql.exception.InvalidFieldsException;
+import org.example.construconectaapinosql.exception.PreconditionFailedException;
+import org.example.construconectaapinosql.model.Desconto;
+import org.example.construconectaapinosql.reactive.service.DescontoReactiveService;
+import org.example.construconectaapinosql.repository.DocumentVersion;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.DataBinder;
+import org.springframework.validation.Validator;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Mesmas rotas de {@code /discounts} da versão servlet, sem bloquear threads enquanto o MongoDB responde.
+ */
+@RestController
+@RequestMapping("/discounts")
+@Profile("reactive")
+public class DescontoReactiveController {
+    private final DescontoReactiveService descontoService;
+    private final Validator validator;
+
+    public DescontoReactiveController(DescontoReactiveService descontoService, Validator validator) {
+        this.descontoService = descontoService;
+        this.validator = validator;
+    }
+
+    @GetMapping("/discounts")
+    @Operation(summary = "Show all vouchers", description = "Returns a list of all available vouchers")
+    public Flux<Desconto> getDiscounts(ServerWebExchange exchange) {
+        // Com If-None-Match igual ao ETag atual responde 304 sem consultar o MongoDB
+        if (exchange.checkNotModified(descontoService.vouchersETag())) {
+            return null;
+        }
+        return descontoService.findAllVouchers();
+    }
+
+    @GetMapping(value = "/discounts", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all vouchers", description = "Streams every voucher as newline-delimited JSON")
+    public Flux<Desconto> streamDiscounts() {
+        return descontoService.findAllVouchers();
+    }
+
+    @PostMapping("/add")
+    @Operation(summary = "Add a new voucher", description = "Create a new voucher and saves it to the database")
+    public Mono<ResponseEntity<?>> addVoucher(@Valid @RequestBody Desconto voucher) {
+        return descontoService.saveVouchers(voucher)
+                .<ResponseEntity<?>>map(saved -> ResponseEntity.status(HttpStatus.CREATED).body(saved))
+                .onErrorResume(DuplicateKeyException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage())));
+    }
+
+    @GetMapping("/findById/{voucherId}")
+    @Operation(summary = "Find voucher by voucherId", description = "Returns the voucher with the specified voucherId")
+    public Mono<ResponseEntity<?>> findVoucherById(@PathVariable String voucherId) {
+        if (!ObjectId.isValid(voucherId)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Formato inválido para ObjectId: " + voucherId));
+        }
+        // ETag do documento, esperado pelo If-Match do PATCH e do DELETE; o If-None-Match dá 304 no ResponseEntityResultHandler
+        return descontoService.findVouchersById(new ObjectId(voucherId))
+                .<ResponseEntity<?>>map(voucher -> ResponseEntity.ok().eTag(etag(voucher)).body(voucher))
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).body("Cupom de desconto não encontrado."));
+    }
+
+    @GetMapping("/findByVoucherName/{voucherName}")
+    @Operation(summary = "Find voucher by voucherName", description = "Returns the voucher with the specified voucherName")
+    public Mono<ResponseEntity<?>> searchByVoucherName(@PathVariable String voucherName) {
+        return descontoService.findByVoucherName(voucherName)
+                .<ResponseEntity<?>>map(voucher -> ResponseEntity.ok().eTag(etag(voucher)).body(List.of(voucher)))
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).body("Cupom de desconto não encontrado."));
+    }
+
+    @PatchMapping("/update/{voucherId}")
+    @Operation(summary = "Update a voucher", description = "Updates only the informed fields (cupom, valorDesconto, maxUsos, expiraEm) of the voucher with the specified voucherId, in a single database operation")
+    public Mono<ResponseEntity<?>> updateVoucherById(@PathVariable String voucherId,
+                                                     @RequestBody Map<String, Object> updates,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (!ObjectId.isValid(voucherId)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Formato inválido para ObjectId: " + voucherId));
+        }
+        return update(updates, ifMatch, (expected, changes) -> descontoService.updateVoucher(new ObjectId(voucherId), expected, changes),
+                "O cupom de desconto com voucherId " + voucherId + " foi atualizado com sucesso.");
+    }
+
+    @PatchMapping("/updateByCupom/{cupom}")
+    @Operation(summary = "Update a voucher by coupon name", description = "Updates only the informed fields (cupom, valorDesconto, maxUsos, expiraEm) of the voucher with the specified coupon name, in a single database operation")
+    public Mono<ResponseEntity<?>> updateVoucherByCupom(@PathVariable String cupom,
+                                                        @RequestBody Map<String, Object> updates,
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return update(updates, ifMatch, (expected, changes) -> descontoService.updateVoucherByCupom(cupom, expected, changes),
+                "O cupom de desconto '" + cupom + "' foi atualizado com sucesso.");
+    }
+
+    @DeleteMapping("/delete/{voucherId}")
+    @Operation(summary = "Delete a voucher", description = "Deletes the voucher with the specified voucherId")
+    public Mono<ResponseEntity<String>> deleteVoucherByVoucherId(@PathVariable String voucherId,
+                                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (!ObjectId.isValid(voucherId)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Formato inválido para ObjectId: " + voucherId));
+        }
+        return delete(ifMatch, expected -> descontoService.deleteVoucher(new ObjectId(voucherId), expected),
+                "Cupom de desconto não encontrado.");
+    }
+
+    @DeleteMapping("/deleteByVoucherName/{voucherName}")
+    @Operation(summary = "Delete a voucher by voucher name", description = "Deletes the voucher with the specified voucher name")
+    public Mono<ResponseEntity<String>> deleteByVoucherName(@PathVariable String voucherName,
+                                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return delete(ifMatch, expected -> descontoService.deleteVoucherByVoucherName(voucherName, expected),
+                "Cupom de desconto não encontrado.: [" + voucherName + "]");
+    }
+
+    @GetMapping("/discounts/over10")
+    @Operation(summary = "Retrieve discounts with percentage over 10%", description = "Returns a list of discounts where percentage is greater than 10, with percentage in decimal format")
+    public Flux<Desconto> getDiscountsWithPercentageOver10(ServerWebExchange exchange) {
+        if (exchange.checkNotModified(descontoService.vouchersETag())) {
+            return null;
+        }
+        return descontoService.findDiscountsWithPercentageOver10();
+    }
+
+    // Mesma ordem da versão servlet: corpo, validação e o findAndModify com a versão do If-Match no filtro
+    private Mono<ResponseEntity<?>> update(Map<String, Object> updates, String ifMatch,
+                                           BiFunction<DocumentVersion, DescontoUpdate, Mono<Desconto>> operation, String message) {
+        DescontoUpdate changes;
+        DocumentVersion expected;
+        try {
+            changes = DescontoUpdate.fromMap(updates);
+            expected = DocumentVersion.fromIfMatch(CollectionVersions.DESCONTO, ifMatch);
+        } catch (PreconditionFailedException e) {
+            return Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest().body(e.getMessage()));
+        }
+        DataBinder binder = new DataBinder(changes);
+        binder.setValidator(validator);
+        binder.validate();
+        Map<String, String> errors = InvalidFieldsException.fieldErrors(binder.getBindingResult());
+        if (!errors.isEmpty()) {
+            return Mono.just(ResponseEntity.badRequest().body(errors));
+        }
+        return operation.apply(expected, changes)
+                .<ResponseEntity<?>>map(updated -> ResponseEntity.ok().eTag(etag(updated)).body(message))
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).body("Cupom de desconto não encontrado."))
+                .onErrorResume(DuplicateKeyException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage())))
+                .onErrorResume(PreconditionFailedException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage())));
+    }
+
+    private Mono<ResponseEntity<String>> delete(String ifMatch, Function<DocumentVersion, Mono<Boolean>> operation, String notFound) {
+        DocumentVersion expected;
+        try {
+            expected = DocumentVersion.fromIfMatch(CollectionVersions.DESCONTO, ifMatch);
+        } catch (PreconditionFailedException e) {
+            return Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage()));
+        }
+        return operation.apply(expected)
+                .map(deleted -> deleted
+                        ? ResponseEntity.ok("Cupom de desconto excluído com sucesso")
+                        : ResponseEntity.status(HttpStatus.NOT_FOUND).body(notFound))
+                .onErrorResume(PreconditionFailedException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage())));
+    }
+
+    private static String etag(Desconto voucher) {
+        return DocumentVersion.of(voucher.getId(), voucher.getVersao()).etag(CollectionVersions.DESCONTO);
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.construconectaapinosql.reactive.repository;
+
+import org.bson.types.ObjectId;
+import org.example.construconectaapinosql.model.Administrador;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+@Profile("reactive")
+public interface AdministradorReactiveRepository extends ReactiveMongoRepository<Administrador, ObjectId> {
+    // Leituras expostas pela API não trazem a senha, como na versão servlet
+    @Query(value = "{}", fields = "{ 'senha': 0 }")
+    Flux<Administrador> findAllWithoutSenha();
+
+    @Query(value = "{ 'usuario_key': ?0 }", fields = "{ 'senha': 0 }")
+    Flux<Administrador> findByUsuarioKey(String usuarioKey);
+
+    @Query(value = "{ 'email_key': ?0 }", fields = "{ 'senha': 0 }")
+    Flux<Administrador> findByEmailKey(String emailKey);
+
+    // Documento completo, com o hash da senha: só para o login
+    Mono<Administrador> findOneByUsuarioKey(String usuarioKey);
+
+    Mono<Administrador> findOneByEmailKey(String emailKey);
+}
@@ -0,0 +1,14 @@
+package org.example.construconectaapinosql.reactive.repository;
+
+import org.bson.types.ObjectId;
+import org.example.construconectaapinosql.model.Desconto;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+@Profile("reactive")
+public interface DescontoReactiveRepository extends ReactiveMongoRepository<Desconto, ObjectId> {
+    Mono<Desconto> findByCupomKey(String cupomKey);
+}
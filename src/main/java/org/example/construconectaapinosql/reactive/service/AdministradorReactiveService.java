@@ -0,0 +1,181 @@
+package org.example.construconectaapinosql.reactive.service;
+
+import org.bson.types.ObjectId;
+import org.example.construconectaapinosql.cache.CollectionVersions;
+import org.example.construconectaapinosql.dto.AdministradorUpdate;
+import org.example.construconectaapinosql.dto.LoginResponse;
+import org.example.construconectaapinosql.exception.PreconditionFailedException;
+import org.example.construconectaapinosql.model.Administrador;
+import org.example.construconectaapinosql.reactive.repository.AdministradorReactiveRepository;
+import org.example.construconectaapinosql.repository.AdministradorRepositoryCustomImpl;
+import org.example.construconectaapinosql.repository.DocumentVersion;
+import org.example.construconectaapinosql.security.JwtService;
+import org.example.construconectaapinosql.security.PasswordHasher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+@Service
+@Profile("reactive")
+public class AdministradorReactiveService {
+    private final AdministradorReactiveRepository administradorRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final PasswordHasher passwordHasher;
+    private final JwtService jwtService;
+    private final CollectionVersions collectionVersions;
+
+    public AdministradorReactiveService(
+            AdministradorReactiveRepository administradorRepository,
+            ReactiveMongoTemplate mongoTemplate,
+            PasswordHasher passwordHasher,
+            JwtService jwtService,
+            CollectionVersions collectionVersions
+    ) {
+        this.administradorRepository = administradorRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.passwordHasher = passwordHasher;
+        this.jwtService = jwtService;
+        this.collectionVersions = collectionVersions;
+    }
+
+    public String adminsETag() {
+        return collectionVersions.etag(CollectionVersions.ADMINISTRADOR);
+    }
+
+    private void bumpIf(boolean changed) {
+        if (changed) {
+            collectionVersions.bump(CollectionVersions.ADMINISTRADOR);
+        }
+    }
+
+    public Flux<Administrador> findAllAdmins() {
+        return administradorRepository.findAllWithoutSenha();
+    }
+
+    public Mono<Administrador> saveAdmins(Administrador adm) {
+        // Unicidade garantida pelos índices únicos de usuario_key e email_key; só insere, como na versão servlet
+        return Mono.fromFuture(() -> passwordHasher.hash(adm.getSenha()))
+                .flatMap(hash -> {
+                    adm.setSenha(hash);
+                    return administradorRepository.insert(adm);
+                })
+                .doOnNext(saved -> bumpIf(true))
+                .onErrorMap(DuplicateKeyException.class, AdministradorReactiveService::duplicate);
+    }
+
+    // Vazio quando o administrador não existe; PreconditionFailedException quando existe em outra versão que a do If-Match
+    public Mono<Administrador> updateAdmin(ObjectId id, DocumentVersion expected, AdministradorUpdate changes) {
+        return update(Criteria.where("_id").is(id), expected, changes);
+    }
+
+    public Mono<Administrador> updateAdminByUsuario(String usuario, DocumentVersion expected, AdministradorUpdate changes) {
+        return update(Criteria.where("usuario_key").is(Administrador.normalizeKey(usuario)), expected, changes);
+    }
+
+    public Mono<Administrador> updateAdminByEmail(String email, DocumentVersion expected, AdministradorUpdate changes) {
+        return update(Criteria.where("email_key").is(Administrador.normalizeKey(email)), expected, changes);
+    }
+
+    // Um único findAndModify com $set só dos campos informados e a versão do If-Match no filtro;
+    // a senha nova vira hash antes, fora do event loop
+    private Mono<Administrador> update(Criteria key, DocumentVersion expected, AdministradorUpdate changes) {
+        Mono<AdministradorUpdate> hashed = changes.senha() == null
+                ? Mono.just(changes)
+                : Mono.fromFuture(() -> passwordHasher.hash(changes.senha()))
+                        .map(hash -> new AdministradorUpdate(changes.usuario(), changes.email(), hash));
+        return hashed
+                .flatMap(update -> mongoTemplate.findAndModify(new Query(DocumentVersion.filter(key, expected)),
+                        AdministradorRepositoryCustomImpl.toUpdate(update), FindAndModifyOptions.options().returnNew(true), Administrador.class))
+                .switchIfEmpty(notWritten(key, expected))
+                .doOnNext(updated -> bumpIf(true))
+                .onErrorMap(DuplicateKeyException.class, AdministradorReactiveService::duplicate);
+    }
+
+    private static DuplicateKeyException duplicate(DuplicateKeyException e) {
+        String detail = e.getMessage() == null ? "" : e.getMessage();
+        return new DuplicateKeyException(detail.contains("email_key") ? "Este e-mail já existe."
+                : detail.contains("index: _id") ? "Já existe um administrador com este id."
+                : "Este usuário já existe.", e);
+    }
+
+    // Vazio quando usuário ou senha não conferem; o bcrypt roda no pool do PasswordHasher, fora do event loop
+    public Mono<LoginResponse> login(String login, String senha) {
+        String key = Administrador.normalizeKey(login);
+        Mono<Administrador> found = login.contains("@")
+                ? administradorRepository.findOneByEmailKey(key)
+                : administradorRepository.findOneByUsuarioKey(key);
+        // Administrador inexistente vira um sem senha, comparado com o hash fictício no mesmo tempo
+        return found.defaultIfEmpty(new Administrador())
+                .flatMap(adm -> {
+                    String stored = adm.getSenha();
+                    if (stored != null && !PasswordHasher.isHash(stored)) {
+                        // Senha gravada em texto puro antes do bcrypt: confere e já troca pelo hash
+                        if (!MessageDigest.isEqual(stored.getBytes(StandardCharsets.UTF_8), senha.getBytes(StandardCharsets.UTF_8))) {
+                            return Mono.fromFuture(() -> passwordHasher.matches(senha, null)).then(Mono.<LoginResponse>empty());
+                        }
+                        Mono<Administrador> upgraded = Mono.fromFuture(() -> passwordHasher.hash(senha))
+                                .flatMap(hash -> {
+                                    adm.setSenha(hash);
+                                    return administradorRepository.save(adm);
+                                });
+                        return upgraded.map(jwtService::issue);
+                    }
+                    return Mono.fromFuture(() -> passwordHasher.matches(senha, stored))
+                            .filter(Boolean::booleanValue)
+                            .map(valid -> jwtService.issue(adm));
+                });
+    }
+
+    public Mono<Administrador> findAdminsById(ObjectId id) {
+        return administradorRepository.findById(id);
+    }
+
+    public Flux<Administrador> findByUsuario(String usuario) {
+        return administradorRepository.findByUsuarioKey(Administrador.normalizeKey(usuario));
+    }
+
+    public Flux<Administrador> findByEmail(String email) {
+        return administradorRepository.findByEmailKey(Administrador.normalizeKey(email));
+    }
+
+    // false quando o administrador não existe
+    public Mono<Boolean> deleteAdminsById(ObjectId id, DocumentVersion expected) {
+        return remove(Criteria.where("_id").is(id), expected);
+    }
+
+    public Mono<Boolean> deleteAdminsByUser(String user, DocumentVersion expected) {
+        return remove(Criteria.where("usuario_key").is(Administrador.normalizeKey(user)), expected);
+    }
+
+    public Mono<Boolean> deleteAdminsByEmail(String email, DocumentVersion expected) {
+        return remove(Criteria.where("email_key").is(Administrador.normalizeKey(email)), expected);
+    }
+
+    private Mono<Boolean> remove(Criteria key, DocumentVersion expected) {
+        return mongoTemplate.remove(new Query(DocumentVersion.filter(key, expected)), Administrador.class)
+                .flatMap(result -> result.getDeletedCount() > 0
+                        ? Mono.just(true)
+                        : notWritten(key, expected).thenReturn(false))
+                .doOnNext(this::bumpIf);
+    }
+
+    // Nada casou com o filtro: sem If-Match o administrador não existe; com ele, só é 404 se também não existir
+    private <T> Mono<T> notWritten(Criteria key, DocumentVersion expected) {
+        if (expected == null) {
+            return Mono.empty();
+        }
+        return mongoTemplate.exists(new Query(key), Administrador.class)
+                .flatMap(exists -> exists
+                        ? Mono.error(new PreconditionFailedException("O administrador foi alterado desde o ETag informado em If-Match."))
+                        : Mono.empty());
+    }
+}
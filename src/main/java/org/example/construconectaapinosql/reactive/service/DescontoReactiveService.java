@@ -0,0 +1,122 @@
+package org.example.construconectaapinosql.reactive.service;
+
+import org.bson.types.ObjectId;
+import org.example.construconectaapinosql.cache.CollectionVersions;
+import org.example.construconectaapinosql.dto.DescontoUpdate;
+import org.example.construconectaapinosql.exception.PreconditionFailedException;
+import org.example.construconectaapinosql.model.Desconto;
+import org.example.construconectaapinosql.reactive.repository.DescontoReactiveRepository;
+import org.example.construconectaapinosql.repository.DescontoRepositoryCustomImpl;
+import org.example.construconectaapinosql.repository.DocumentVersion;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@Profile("reactive")
+public class DescontoReactiveService {
+    private final DescontoReactiveRepository descontoRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final CollectionVersions collectionVersions;
+
+    public DescontoReactiveService(
+            DescontoReactiveRepository descontoRepository,
+            ReactiveMongoTemplate mongoTemplate,
+            CollectionVersions collectionVersions
+    ) {
+        this.descontoRepository = descontoRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.collectionVersions = collectionVersions;
+    }
+
+    public String vouchersETag() {
+        return collectionVersions.etag(CollectionVersions.DESCONTO);
+    }
+
+    private void bump() {
+        collectionVersions.bump(CollectionVersions.DESCONTO);
+    }
+
+    public Flux<Desconto> findAllVouchers() {
+        return descontoRepository.findAll();
+    }
+
+    public Mono<Desconto> saveVouchers(Desconto voucher) {
+        // Unicidade garantida pelo índice único de cupom_key; só insere, como na versão servlet
+        return descontoRepository.insert(voucher)
+                .doOnNext(saved -> bump())
+                .onErrorMap(DuplicateKeyException.class, e -> new DuplicateKeyException(
+                        e.getMessage() != null && e.getMessage().contains("index: _id")
+                                ? "Já existe um cupom de desconto com este id."
+                                : "Cupom de desconto já existe.", e));
+    }
+
+    // Vazio quando o cupom não existe; PreconditionFailedException quando existe em outra versão que a do If-Match
+    public Mono<Desconto> updateVoucher(ObjectId id, DocumentVersion expected, DescontoUpdate changes) {
+        return update(Criteria.where("_id").is(id), expected, changes);
+    }
+
+    public Mono<Desconto> updateVoucherByCupom(String cupom, DocumentVersion expected, DescontoUpdate changes) {
+        return update(Criteria.where("cupom_key").is(Desconto.normalizeCupom(cupom)), expected, changes);
+    }
+
+    // Um único findAndModify com $set só dos campos informados e a versão do If-Match no filtro, como na versão servlet
+    private Mono<Desconto> update(Criteria key, DocumentVersion expected, DescontoUpdate changes) {
+        return mongoTemplate.findAndModify(new Query(DocumentVersion.filter(key, expected)), DescontoRepositoryCustomImpl.toUpdate(changes),
+                        FindAndModifyOptions.options().returnNew(true), Desconto.class)
+                .switchIfEmpty(notWritten(key, expected))
+                .doOnNext(updated -> bump())
+                .onErrorMap(DuplicateKeyException.class, e -> new DuplicateKeyException("Cupom de desconto já existe.", e));
+    }
+
+    public Mono<Desconto> findVouchersById(ObjectId id) {
+        return descontoRepository.findById(id);
+    }
+
+    public Mono<Desconto> findByVoucherName(String voucher) {
+        return descontoRepository.findByCupomKey(Desconto.normalizeCupom(voucher));
+    }
+
+    // false quando o cupom não existe
+    public Mono<Boolean> deleteVoucher(ObjectId id, DocumentVersion expected) {
+        return remove(Criteria.where("_id").is(id), expected);
+    }
+
+    public Mono<Boolean> deleteVoucherByVoucherName(String voucher, DocumentVersion expected) {
+        return remove(Criteria.where("cupom_key").is(Desconto.normalizeCupom(voucher)), expected);
+    }
+
+    private Mono<Boolean> remove(Criteria key, DocumentVersion expected) {
+        return mongoTemplate.remove(new Query(DocumentVersion.filter(key, expected)), Desconto.class)
+                .flatMap(result -> result.getDeletedCount() > 0
+                        ? Mono.just(true).doOnNext(deleted -> bump())
+                        : notWritten(key, expected).thenReturn(false));
+    }
+
+    // Nada casou com o filtro: sem If-Match o cupom não existe; com ele, só é 404 se o cupom também não existir
+    private <T> Mono<T> notWritten(Criteria key, DocumentVersion expected) {
+        if (expected == null) {
+            return Mono.empty();
+        }
+        return mongoTemplate.exists(new Query(key), Desconto.class)
+                .flatMap(exists -> exists
+                        ? Mono.error(new PreconditionFailedException("O cupom de desconto foi alterado desde o ETag informado em If-Match."))
+                        : Mono.empty());
+    }
+
+    public Flux<Desconto> findDiscountsWithPercentageOver10() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("valor_desconto").gt(10.0)),
+                // Fração gravada junto com o valor: renomeia o campo em vez de calcular a divisão por documento
+                Aggregation.project("cupom").and("fracao_desconto").as("valor_desconto")
+        );
+        return mongoTemplate.aggregate(aggregation, "desconto", Desconto.class);
+    }
+}
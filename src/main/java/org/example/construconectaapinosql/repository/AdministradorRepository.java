@@ -2,21 +2,13 @@ package org.example.construconectaapinosql.repository;
 
 import org.bson.types.ObjectId;
 import org.example.construconectaapinosql.model.Administrador;
-import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.repository.ListCrudRepository;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
 import java.util.Optional;
 
+// Só o CRUD: consultas por exemplo, ordenação e paginação genéricas ficam nos métodos próprios, que o modo memória também implementa
 @Repository
-public interface AdministradorRepository extends MongoRepository<Administrador, ObjectId> {
+public interface AdministradorRepository extends ListCrudRepository<Administrador, ObjectId>, AdministradorRepositoryCustom {
     Optional<Administrador> findById(String id);
-
-    List<Administrador> findByUsuarioIgnoreCase(String usuario);
-
-    List<Administrador> findByEmailIgnoreCase(String email);
-
-    void deleteByUsuario(String usuario);
-
-    void deleteByEmail(String email);
 }
@@ -0,0 +1,41 @@
+package org.example.construconectaapinosql.repository;
+
+import org.bson.types.ObjectId;
+import org.example.construconectaapinosql.dto.AdministradorUpdate;
+import org.example.construconectaapinosql.model.Administrador;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Consultas feitas com o MongoTemplate. Nos parâmetros {@code fields}, {@code null} significa documento inteiro.
+ */
+public interface AdministradorRepositoryCustom {
+    // Só cria: um _id que já existe falha com chave duplicada em vez de substituir o documento (e zerar a versão)
+    <S extends Administrador> S insert(S admin);
+
+    List<Administrador> findAllProjected(List<String> fields);
+
+    List<Administrador> findPageAfter(String afterId, int limit, List<String> fields);
+
+    void streamAll(List<String> fields, Consumer<Administrador> consumer);
+
+    List<Administrador> findByUsuarioKey(String usuarioKey, List<String> fields);
+
+    List<Administrador> findByEmailKey(String emailKey, List<String> fields);
+
+    // $set só dos campos informados e $inc da versão, numa única ida ao banco. Com expected, só altera se o documento
+    // ainda estiver nessa versão (null = qualquer uma). Retorna o documento já atualizado, ou null se nada casou
+    Administrador updateById(ObjectId id, DocumentVersion expected, AdministradorUpdate changes);
+
+    Administrador updateByUsuarioKey(String usuarioKey, DocumentVersion expected, AdministradorUpdate changes);
+
+    Administrador updateByEmailKey(String emailKey, DocumentVersion expected, AdministradorUpdate changes);
+
+    // Exclusão com a mesma condição de versão. Retorna quantos documentos saíram
+    long removeById(ObjectId id, DocumentVersion expected);
+
+    long removeByUsuarioKey(String usuarioKey, DocumentVersion expected);
+
+    long removeByEmailKey(String emailKey, DocumentVersion expected);
+}
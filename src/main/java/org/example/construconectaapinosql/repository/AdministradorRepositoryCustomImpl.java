@@ -0,0 +1,120 @@
+package org.example.construconectaapinosql.repository;
+
+import org.bson.types.ObjectId;
+import org.example.construconectaapinosql.dto.AdministradorUpdate;
+import org.example.construconectaapinosql.model.Administrador;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class AdministradorRepositoryCustomImpl implements AdministradorRepositoryCustom {
+    private static final int STREAM_BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+
+    public AdministradorRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public <S extends Administrador> S insert(S admin) {
+        return mongoTemplate.insert(admin);
+    }
+
+    @Override
+    public List<Administrador> findAllProjected(List<String> fields) {
+        return mongoTemplate.find(Projections.apply(new Query(), fields), Administrador.class);
+    }
+
+    @Override
+    public List<Administrador> findPageAfter(String afterId, int limit, List<String> fields) {
+        // Paginação por chave (_id > último visto): custo constante, sem skip
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id")).limit(limit);
+        if (afterId != null) {
+            query.addCriteria(Criteria.where("_id").gt(new ObjectId(afterId)));
+        }
+        return mongoTemplate.find(Projections.apply(query, fields), Administrador.class);
+    }
+
+    @Override
+    public void streamAll(List<String> fields, Consumer<Administrador> consumer) {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id"));
+        query.cursorBatchSize(STREAM_BATCH_SIZE);
+        try (Stream<Administrador> admins = mongoTemplate.stream(Projections.apply(query, fields), Administrador.class)) {
+            admins.forEach(consumer);
+        }
+    }
+
+    @Override
+    public List<Administrador> findByUsuarioKey(String usuarioKey, List<String> fields) {
+        Query query = new Query(Criteria.where("usuario_key").is(usuarioKey));
+        return mongoTemplate.find(Projections.apply(query, fields), Administrador.class);
+    }
+
+    @Override
+    public List<Administrador> findByEmailKey(String emailKey, List<String> fields) {
+        Query query = new Query(Criteria.where("email_key").is(emailKey));
+        return mongoTemplate.find(Projections.apply(query, fields), Administrador.class);
+    }
+
+    @Override
+    public Administrador updateById(ObjectId id, DocumentVersion expected, AdministradorUpdate changes) {
+        return update(Criteria.where("_id").is(id), expected, changes);
+    }
+
+    @Override
+    public Administrador updateByUsuarioKey(String usuarioKey, DocumentVersion expected, AdministradorUpdate changes) {
+        return update(Criteria.where("usuario_key").is(usuarioKey), expected, changes);
+    }
+
+    @Override
+    public Administrador updateByEmailKey(String emailKey, DocumentVersion expected, AdministradorUpdate changes) {
+        return update(Criteria.where("email_key").is(emailKey), expected, changes);
+    }
+
+    private Administrador update(Criteria key, DocumentVersion expected, AdministradorUpdate changes) {
+        return mongoTemplate.findAndModify(new Query(DocumentVersion.filter(key, expected)), toUpdate(changes),
+                FindAndModifyOptions.options().returnNew(true), Administrador.class);
+    }
+
+    @Override
+    public long removeById(ObjectId id, DocumentVersion expected) {
+        return remove(Criteria.where("_id").is(id), expected);
+    }
+
+    @Override
+    public long removeByUsuarioKey(String usuarioKey, DocumentVersion expected) {
+        return remove(Criteria.where("usuario_key").is(usuarioKey), expected);
+    }
+
+    @Override
+    public long removeByEmailKey(String emailKey, DocumentVersion expected) {
+        return remove(Criteria.where("email_key").is(emailKey), expected);
+    }
+
+    private long remove(Criteria key, DocumentVersion expected) {
+        return mongoTemplate.remove(new Query(DocumentVersion.filter(key, expected)), Administrador.class).getDeletedCount();
+    }
+
+    // $set só dos campos informados, com a senha já em hash, e $inc da versão; usado também pela versão reativa
+    public static Update toUpdate(AdministradorUpdate changes) {
+        Update update = new Update().inc("versao", 1);
+        if (changes.usuario() != null) {
+            update.set("usuario", changes.usuario()).set("usuario_key", Administrador.normalizeKey(changes.usuario()));
+        }
+        if (changes.email() != null) {
+            update.set("email", changes.email()).set("email_key", Administrador.normalizeKey(changes.email()));
+        }
+        if (changes.senha() != null) {
+            update.set("senha", changes.senha());
+        }
+        return update;
+    }
+}
@@ -0,0 +1,4 @@
+package org.example.construconectaapinosql.repository;
+
+public record BulkWriteFailure(boolean duplicateKey, String message) {
+}
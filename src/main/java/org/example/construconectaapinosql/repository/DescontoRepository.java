@@ -2,17 +2,24 @@ package org.example.construconectaapinosql.repository;
 
 import org.bson.types.ObjectId;
 import org.example.construconectaapinosql.model.Desconto;
-import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.repository.ListCrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+// Só o CRUD: consultas por exemplo, ordenação e paginação genéricas ficam nos métodos próprios, que o modo memória também implementa
 @Repository
-public interface DescontoRepository extends MongoRepository<Desconto, ObjectId> {
+public interface DescontoRepository extends ListCrudRepository<Desconto, ObjectId>, DescontoRepositoryCustom {
     Optional<Desconto> findById(String id);
 
     List<Desconto> findByCupomLikeIgnoreCase(String cupom);
 
+    Optional<Desconto> findByCupomKey(String cupomKey);
+
+    // Um único $in no índice único de cupom_key
+    List<Desconto> findByCupomKeyIn(Collection<String> cupomKeys);
+
     void deleteByCupom(String cupom);
 }
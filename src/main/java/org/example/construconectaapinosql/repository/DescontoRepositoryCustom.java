@@ -0,0 +1,61 @@
+package org.example.construconectaapinosql.repository;
+
+import org.bson.types.ObjectId;
+import org.example.construconectaapinosql.dto.DescontoUpdate;
+import org.example.construconectaapinosql.dto.DiscountHistogram;
+import org.example.construconectaapinosql.model.Desconto;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Consultas feitas com o MongoTemplate. Nos parâmetros {@code fields}, {@code null} significa documento inteiro.
+ */
+public interface DescontoRepositoryCustom {
+    // Só cria: um _id que já existe falha com chave duplicada em vez de substituir o documento (e zerar usos e versão)
+    <S extends Desconto> S insert(S voucher);
+
+    List<Desconto> findAllProjected(List<String> fields);
+
+    List<Desconto> findPageAfter(String afterId, int limit, List<String> fields);
+
+    void streamAll(List<String> fields, Consumer<Desconto> consumer);
+
+    // Percorre só o cupom normalizado de cada documento, sem mapear para Desconto
+    void streamCupomKeys(Consumer<String> consumer);
+
+    // Contagem pelos metadados da coleção, sem varrer documentos
+    long estimatedCount();
+
+    List<Desconto> findByCupomContaining(String fragment, List<String> fields);
+
+    // Faixa de valor_desconto (limites inclusivos, null = sem limite), ordenada e limitada no índice de valor_desconto
+    List<Desconto> findByValorRange(Double min, Double max, Sort.Direction direction, int limit, List<String> fields);
+
+    // Cupom e fração dos cupons com valor_desconto acima de min, com a fração no lugar de valor_desconto
+    List<Desconto> findFractionsAbove(double min);
+
+    // Contagem por faixa de valor_desconto e resumo da coleção numa única agregação ($facet)
+    DiscountHistogram valueHistogram(List<Double> boundaries);
+
+    // $set só dos campos informados e $inc da versão, numa única ida ao banco. Com expected, só altera se o documento
+    // ainda estiver nessa versão (null = qualquer uma). Retorna o documento já atualizado, ou null se nada casou
+    Desconto updateById(ObjectId id, DocumentVersion expected, DescontoUpdate changes);
+
+    Desconto updateByCupomKey(String cupomKey, DocumentVersion expected, DescontoUpdate changes);
+
+    // Exclusão com a mesma condição de versão. Retorna quantos documentos saíram
+    long removeById(ObjectId id, DocumentVersion expected);
+
+    long removeByCupomKey(String cupomKey, DocumentVersion expected);
+
+    // Incrementa usos numa única operação atômica se o cupom existir, estiver no prazo e ainda tiver usos.
+    // Retorna o documento já atualizado, ou null se alguma condição falhou
+    Desconto redeem(String cupomKey, Instant now);
+
+    // Insert em lote não ordenado: um item com erro não impede os outros. Retorna índice no lote -> erro
+    Map<Integer, BulkWriteFailure> insertUnordered(List<Desconto> vouchers);
+}
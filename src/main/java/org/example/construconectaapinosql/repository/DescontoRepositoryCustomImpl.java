@@ -0,0 +1,264 @@
+package org.example.construconectaapinosql.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCursor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.example.construconectaapinosql.dto.DescontoUpdate;
+import org.example.construconectaapinosql.dto.DiscountHistogram;
+import org.example.construconectaapinosql.model.Desconto;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+public class DescontoRepositoryCustomImpl implements DescontoRepositoryCustom {
+    private static final int DUPLICATE_KEY = 11000;
+    private static final int STREAM_BATCH_SIZE = 1000;
+    private static final String OUTSIDE_BUCKET = "fora";
+
+    private final MongoTemplate mongoTemplate;
+
+    public DescontoRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public <S extends Desconto> S insert(S voucher) {
+        return mongoTemplate.insert(voucher);
+    }
+
+    @Override
+    public List<Desconto> findAllProjected(List<String> fields) {
+        return mongoTemplate.find(Projections.apply(new Query(), fields), Desconto.class);
+    }
+
+    @Override
+    public List<Desconto> findPageAfter(String afterId, int limit, List<String> fields) {
+        // Paginação por chave (_id > último visto): custo constante, sem skip
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id")).limit(limit);
+        if (afterId != null) {
+            query.addCriteria(Criteria.where("_id").gt(new ObjectId(afterId)));
+        }
+        return mongoTemplate.find(Projections.apply(query, fields), Desconto.class);
+    }
+
+    @Override
+    public void streamAll(List<String> fields, Consumer<Desconto> consumer) {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id"));
+        query.cursorBatchSize(STREAM_BATCH_SIZE);
+        try (Stream<Desconto> vouchers = mongoTemplate.stream(Projections.apply(query, fields), Desconto.class)) {
+            vouchers.forEach(consumer);
+        }
+    }
+
+    @Override
+    public void streamCupomKeys(Consumer<String> consumer) {
+        Document projection = new Document("cupom", 1).append("cupom_key", 1).append("_id", 0);
+        try (MongoCursor<Document> cursor = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Desconto.class))
+                .find()
+                .projection(projection)
+                .batchSize(STREAM_BATCH_SIZE)
+                .iterator()) {
+            while (cursor.hasNext()) {
+                Document voucher = cursor.next();
+                // Documentos antigos podem ainda não ter cupom_key, se o preenchimento do MongoIndexConfig não rodou
+                Object key = voucher.get("cupom_key");
+                if (key == null && voucher.get("cupom") instanceof String cupom) {
+                    key = Desconto.normalizeCupom(cupom);
+                }
+                if (key instanceof String cupomKey) {
+                    consumer.accept(cupomKey);
+                }
+            }
+        }
+    }
+
+    @Override
+    public long estimatedCount() {
+        return mongoTemplate.estimatedCount(Desconto.class);
+    }
+
+    @Override
+    public Desconto updateById(ObjectId id, DocumentVersion expected, DescontoUpdate changes) {
+        return update(Criteria.where("_id").is(id), expected, changes);
+    }
+
+    @Override
+    public Desconto updateByCupomKey(String cupomKey, DocumentVersion expected, DescontoUpdate changes) {
+        return update(Criteria.where("cupom_key").is(cupomKey), expected, changes);
+    }
+
+    private Desconto update(Criteria key, DocumentVersion expected, DescontoUpdate changes) {
+        return mongoTemplate.findAndModify(new Query(DocumentVersion.filter(key, expected)), toUpdate(changes),
+                FindAndModifyOptions.options().returnNew(true), Desconto.class);
+    }
+
+    @Override
+    public long removeById(ObjectId id, DocumentVersion expected) {
+        return remove(Criteria.where("_id").is(id), expected);
+    }
+
+    @Override
+    public long removeByCupomKey(String cupomKey, DocumentVersion expected) {
+        return remove(Criteria.where("cupom_key").is(cupomKey), expected);
+    }
+
+    private long remove(Criteria key, DocumentVersion expected) {
+        return mongoTemplate.remove(new Query(DocumentVersion.filter(key, expected)), Desconto.class).getDeletedCount();
+    }
+
+    // $set só dos campos informados e $inc da versão; usado também pela versão reativa
+    public static Update toUpdate(DescontoUpdate changes) {
+        Update update = new Update().inc("versao", 1);
+        if (changes.cupom() != null) {
+            update.set("cupom", changes.cupom()).set("cupom_key", Desconto.normalizeCupom(changes.cupom()));
+        }
+        if (changes.valorDesconto() != null) {
+            update.set("valor_desconto", changes.valorDesconto()).set("fracao_desconto", Desconto.toFracao(changes.valorDesconto()));
+        }
+        if (changes.maxUsos() != null) {
+            update.set("max_usos", changes.maxUsos());
+        }
+        if (changes.expiraEm() != null) {
+            update.set("expira_em", changes.expiraEm());
+        }
+        return update;
+    }
+
+    @Override
+    public Desconto redeem(String cupomKey, Instant now) {
+        Criteria filter = new Criteria().andOperator(
+                Criteria.where("cupom_key").is(cupomKey),
+                new Criteria().orOperator(
+                        Criteria.where("expira_em").is(null),
+                        Criteria.where("expira_em").gt(now)),
+                new Criteria().orOperator(
+                        Criteria.where("max_usos").is(null),
+                        // usos ausente conta como menor que qualquer número no $lt
+                        Criteria.expr(ComparisonOperators.valueOf("usos").lessThan("max_usos")))
+        );
+        return mongoTemplate.findAndModify(
+                new Query(filter),
+                new Update().inc("usos", 1).inc("versao", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                Desconto.class);
+    }
+
+    @Override
+    public Map<Integer, BulkWriteFailure> insertUnordered(List<Desconto> vouchers) {
+        Map<Integer, BulkWriteFailure> failures = new HashMap<>();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Desconto.class)
+                    .insert(vouchers)
+                    .execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                failures.put(error.getIndex(), new BulkWriteFailure(error.getCode() == DUPLICATE_KEY, error.getMessage()));
+            }
+        }
+        return failures;
+    }
+
+    @Override
+    public List<Desconto> findByCupomContaining(String fragment, List<String> fields) {
+        Query query = new Query(Criteria.where("cupom").regex(Pattern.quote(fragment), "i"));
+        return mongoTemplate.find(Projections.apply(query, fields), Desconto.class);
+    }
+
+    @Override
+    public List<Desconto> findByValorRange(Double min, Double max, Sort.Direction direction, int limit, List<String> fields) {
+        Criteria valor = Criteria.where("valor_desconto");
+        if (min != null) {
+            valor.gte(min);
+        }
+        if (max != null) {
+            valor.lte(max);
+        }
+        if (min == null && max == null) {
+            // Comparações no MongoDB só casam valores do mesmo tipo: isto deixa de fora só os documentos sem valor
+            valor.gte(Double.NEGATIVE_INFINITY);
+        }
+        // _id desempata os valores iguais, na mesma direção, para a ordem ser estável entre chamadas
+        Query query = new Query(valor)
+                .with(Sort.by(direction, "valor_desconto").and(Sort.by(direction, "_id")))
+                .limit(limit);
+        return mongoTemplate.find(Projections.apply(query, fields), Desconto.class);
+    }
+
+    @Override
+    public List<Desconto> findFractionsAbove(double min) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("valor_desconto").gt(min)),
+                Aggregation.project("cupom").and("fracao_desconto").as("valor_desconto")
+        );
+        return mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(Desconto.class), Desconto.class)
+                .getMappedResults();
+    }
+
+    @Override
+    public DiscountHistogram valueHistogram(List<Double> boundaries) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("valor_desconto").gte(Double.NEGATIVE_INFINITY)),
+                Aggregation.facet(Aggregation.bucket("valor_desconto")
+                                .withBoundaries(boundaries.toArray())
+                                .withDefaultBucket(OUTSIDE_BUCKET)
+                                .andOutputCount().as("count"))
+                        .as("buckets")
+                        .and(Aggregation.group()
+                                .count().as("total")
+                                .min("valor_desconto").as("min")
+                                .max("valor_desconto").as("max")
+                                .avg("valor_desconto").as("average"))
+                        .as("summary")
+        );
+        Document result = mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(Desconto.class), Document.class)
+                .getUniqueMappedResult();
+
+        // O $bucket omite as faixas vazias: parte de todas zeradas e preenche as que vieram
+        Map<Double, Long> counts = new HashMap<>();
+        long outside = 0;
+        for (Document bucket : result.getList("buckets", Document.class)) {
+            long count = ((Number) bucket.get("count")).longValue();
+            if (bucket.get("_id") instanceof Number from) {
+                counts.put(from.doubleValue(), count);
+            } else {
+                outside = count;
+            }
+        }
+        List<DiscountHistogram.Bucket> buckets = new ArrayList<>(boundaries.size() - 1);
+        for (int i = 0; i < boundaries.size() - 1; i++) {
+            double from = boundaries.get(i);
+            buckets.add(new DiscountHistogram.Bucket(from, boundaries.get(i + 1), counts.getOrDefault(from, 0L)));
+        }
+        List<Document> summary = result.getList("summary", Document.class);
+        if (summary.isEmpty()) {
+            return new DiscountHistogram(buckets, outside, 0, null, null, null);
+        }
+        Document totals = summary.get(0);
+        return new DiscountHistogram(buckets, outside,
+                ((Number) totals.get("total")).longValue(),
+                toDouble(totals.get("min")),
+                toDouble(totals.get("max")),
+                toDouble(totals.get("average")));
+    }
+
+    private static Double toDouble(Object value) {
+        return value instanceof Number number ? number.doubleValue() : null;
+    }
+}
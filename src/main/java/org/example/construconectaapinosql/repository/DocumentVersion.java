@@ -0,0 +1,59 @@
+package org.example.construconectaapinosql.repository;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.example.construconectaapinosql.exception.PreconditionFailedException;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Versão de um documento (campo {@code versao}, incrementado a cada atualização), como vai no ETag das respostas
+ * e volta no If-Match. Entra no filtro da própria escrita: a atualização ou exclusão só acontece se o documento
+ * ainda estiver nessa versão, então duas escritas com o mesmo ETag nunca passam as duas, mesmo em nós diferentes.
+ */
+public record DocumentVersion(ObjectId id, long versao) {
+    private static final Pattern ETAG = Pattern.compile("\"([a-z]+)-([0-9a-f]{24})-(\\d+)\"");
+
+    // Documentos gravados antes do campo versao contam como versão 0
+    public static DocumentVersion of(String id, Long versao) {
+        return new DocumentVersion(new ObjectId(id), versao == null ? 0 : versao);
+    }
+
+    public String etag(String collection) {
+        return "\"" + collection + "-" + id.toHexString() + "-" + versao + "\"";
+    }
+
+    // null quando o If-Match não veio ou é *: a escrita vale para qualquer versão
+    public static DocumentVersion fromIfMatch(String collection, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Matcher matcher = ETAG.matcher(ifMatch.trim());
+        if (!matcher.matches() || !matcher.group(1).equals(collection)) {
+            throw new PreconditionFailedException("If-Match deve trazer o ETag de um único documento, como devolvido na busca por ele.");
+        }
+        return new DocumentVersion(new ObjectId(matcher.group(2)), Long.parseLong(matcher.group(3)));
+    }
+
+    // Filtro da escrita: a chave da rota e, se houver If-Match, o _id e a versão esperados
+    public static Criteria filter(Criteria key, DocumentVersion expected) {
+        if (expected == null) {
+            return key;
+        }
+        Criteria versao = expected.versao() == 0
+                ? Criteria.where("versao").in(0, null)
+                : Criteria.where("versao").is(expected.versao());
+        return new Criteria().andOperator(key, Criteria.where("_id").is(expected.id()), versao);
+    }
+
+    // O mesmo filtro para o armazenamento em memória
+    public static boolean matches(Document document, DocumentVersion expected) {
+        if (expected == null) {
+            return true;
+        }
+        long versao = document.get("versao") instanceof Number number ? number.longValue() : 0;
+        return expected.id().equals(document.getObjectId("_id")) && versao == expected.versao();
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.construconectaapinosql.repository;
+
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+final class Projections {
+    private Projections() {
+    }
+
+    // Só os campos pedidos são lidos e decodificados; o _id vem sempre (é o cursor da paginação)
+    static Query apply(Query query, List<String> fields) {
+        if (fields != null) {
+            query.fields().include(fields.toArray(String[]::new));
+        }
+        return query;
+    }
+}
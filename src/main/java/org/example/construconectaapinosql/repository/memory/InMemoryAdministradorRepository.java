@@ -0,0 +1,114 @@
+package org.example.construconectaapinosql.repository.memory;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.example.construconectaapinosql.dto.AdministradorUpdate;
+import org.example.construconectaapinosql.model.Administrador;
+import org.example.construconectaapinosql.repository.AdministradorRepository;
+import org.example.construconectaapinosql.repository.DocumentVersion;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * {@link AdministradorRepository} do perfil {@code memory}. Usuário e e-mail são achados pelos índices de
+ * {@code usuario_key} e {@code email_key} (minúsculos, sem espaços nas pontas).
+ */
+@Repository
+@Profile("memory")
+public class InMemoryAdministradorRepository extends InMemoryRepository<Administrador> implements AdministradorRepository {
+    public InMemoryAdministradorRepository(InMemoryStore store) {
+        super(store, Administrador.class);
+    }
+
+    @Override
+    public Optional<Administrador> findById(String id) {
+        return findByHexId(id);
+    }
+
+    @Override
+    public long removeById(ObjectId id, DocumentVersion expected) {
+        return remove(collection.get(id), null, expected);
+    }
+
+    @Override
+    public long removeByUsuarioKey(String usuarioKey, DocumentVersion expected) {
+        return remove(collection.getByKey("usuario_key", usuarioKey), "usuario_key", expected);
+    }
+
+    @Override
+    public long removeByEmailKey(String emailKey, DocumentVersion expected) {
+        return remove(collection.getByKey("email_key", emailKey), "email_key", expected);
+    }
+
+    @Override
+    public List<Administrador> findAllProjected(List<String> fields) {
+        return toEntities(collection.all(), fields);
+    }
+
+    @Override
+    public List<Administrador> findPageAfter(String afterId, int limit, List<String> fields) {
+        Collection<Document> admins = afterId == null ? collection.all() : collection.after(new ObjectId(afterId));
+        return toEntities(admins.stream().limit(limit).toList(), fields);
+    }
+
+    @Override
+    public void streamAll(List<String> fields, Consumer<Administrador> consumer) {
+        stream(collection.all(), fields, consumer);
+    }
+
+    @Override
+    public List<Administrador> findByUsuarioKey(String usuarioKey, List<String> fields) {
+        return toEntities(byKey("usuario_key", usuarioKey), fields);
+    }
+
+    @Override
+    public List<Administrador> findByEmailKey(String emailKey, List<String> fields) {
+        return toEntities(byKey("email_key", emailKey), fields);
+    }
+
+    @Override
+    public Administrador updateById(ObjectId id, DocumentVersion expected, AdministradorUpdate changes) {
+        return update(collection.get(id), null, expected, changes);
+    }
+
+    @Override
+    public Administrador updateByUsuarioKey(String usuarioKey, DocumentVersion expected, AdministradorUpdate changes) {
+        return update(collection.getByKey("usuario_key", usuarioKey), "usuario_key", expected, changes);
+    }
+
+    @Override
+    public Administrador updateByEmailKey(String emailKey, DocumentVersion expected, AdministradorUpdate changes) {
+        return update(collection.getByKey("email_key", emailKey), "email_key", expected, changes);
+    }
+
+    private Administrador update(Document admin, String keyField, DocumentVersion expected, AdministradorUpdate changes) {
+        if (admin == null) {
+            return null;
+        }
+        Document updated = collection.update(admin, stillMatches(admin, keyField, expected), document -> {
+            incrementVersao(document);
+            if (changes.usuario() != null) {
+                document.put("usuario", changes.usuario());
+                document.put("usuario_key", Administrador.normalizeKey(changes.usuario()));
+            }
+            if (changes.email() != null) {
+                document.put("email", changes.email());
+                document.put("email_key", Administrador.normalizeKey(changes.email()));
+            }
+            if (changes.senha() != null) {
+                document.put("senha", changes.senha());
+            }
+        });
+        return updated == null ? null : toEntity(updated);
+    }
+
+    private List<Document> byKey(String keyField, String key) {
+        Document admin = collection.getByKey(keyField, key);
+        return admin == null ? List.of() : List.of(admin);
+    }
+}
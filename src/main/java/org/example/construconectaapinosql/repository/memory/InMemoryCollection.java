@@ -0,0 +1,157 @@
+package org.example.construconectaapinosql.repository.memory;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Uma coleção em memória: documentos BSON em ordem de {@code _id} e índices únicos e esparsos sobre as chaves
+ * normalizadas (cupom_key, usuario_key, email_key), como os criados pelo {@link org.example.construconectaapinosql.config.MongoIndexConfig}.
+ * <p>
+ * Leituras não travam. As escritas são serializadas por coleção e nunca alteram um documento já guardado:
+ * cada alteração grava uma cópia, então quem lê vê sempre um documento inteiro, antes ou depois da escrita.
+ */
+final class InMemoryCollection {
+    private final String name;
+    private final ConcurrentSkipListMap<ObjectId, Document> documents = new ConcurrentSkipListMap<>();
+    // campo -> chave -> _id
+    private final Map<String, ConcurrentHashMap<String, ObjectId>> uniqueIndexes = new LinkedHashMap<>();
+    private final AtomicLong modifications = new AtomicLong();
+
+    InMemoryCollection(String name, String... uniqueFields) {
+        this.name = name;
+        for (String field : uniqueFields) {
+            uniqueIndexes.put(field, new ConcurrentHashMap<>());
+        }
+    }
+
+    String name() {
+        return name;
+    }
+
+    Document get(ObjectId id) {
+        return documents.get(id);
+    }
+
+    Document getByKey(String field, String key) {
+        ObjectId id = key == null ? null : uniqueIndexes.get(field).get(key);
+        return id == null ? null : documents.get(id);
+    }
+
+    // Em ordem de _id, como o find ordenado por _id
+    Collection<Document> all() {
+        return documents.values();
+    }
+
+    Collection<Document> after(ObjectId id) {
+        return documents.tailMap(id, false).values();
+    }
+
+    int size() {
+        return documents.size();
+    }
+
+    // Contador de escritas: o snapshot só regrava a coleção quando ele mudou
+    long modifications() {
+        return modifications.get();
+    }
+
+    // Insert: falha se o _id já existir
+    synchronized Document insert(Document document) {
+        if (document.get("_id") == null) {
+            document.put("_id", new ObjectId());
+        }
+        if (documents.containsKey(document.getObjectId("_id"))) {
+            throw duplicate("_id", document.getObjectId("_id").toHexString());
+        }
+        return store(null, document);
+    }
+
+    // Save: insere ou substitui o documento inteiro de mesmo _id
+    synchronized Document save(Document document) {
+        if (document.get("_id") == null) {
+            document.put("_id", new ObjectId());
+        }
+        return store(documents.get(document.getObjectId("_id")), document);
+    }
+
+    // findAndModify: aplica a alteração numa cópia se a condição valer. Retorna o documento novo, ou null
+    synchronized Document update(Document current, Predicate<Document> condition, Consumer<Document> change) {
+        Document latest = current == null ? null : documents.get(current.getObjectId("_id"));
+        if (latest == null || !condition.test(latest)) {
+            return null;
+        }
+        Document updated = new Document(latest);
+        change.accept(updated);
+        return store(latest, updated);
+    }
+
+    synchronized Document remove(ObjectId id) {
+        return remove(id, document -> true);
+    }
+
+    // Remove só se a condição valer para o documento atual, como o filtro do deleteOne
+    synchronized Document remove(ObjectId id, Predicate<Document> condition) {
+        Document current = id == null ? null : documents.get(id);
+        if (current == null || !condition.test(current)) {
+            return null;
+        }
+        Document removed = documents.remove(id);
+        if (removed != null) {
+            uniqueIndexes.forEach((field, index) -> unindex(index, removed.get(field), id));
+            modifications.incrementAndGet();
+        }
+        return removed;
+    }
+
+    synchronized void clear() {
+        documents.clear();
+        uniqueIndexes.values().forEach(Map::clear);
+        modifications.incrementAndGet();
+    }
+
+    private Document store(Document previous, Document document) {
+        ObjectId id = document.getObjectId("_id");
+        // Valida todos os índices antes de mexer em qualquer um: a escrita recusada não deixa rastro
+        uniqueIndexes.forEach((field, index) -> {
+            if (document.get(field) instanceof String key) {
+                ObjectId owner = index.get(key);
+                if (owner != null && !owner.equals(id)) {
+                    throw duplicate(field, key);
+                }
+            }
+        });
+        if (previous != null) {
+            uniqueIndexes.forEach((field, index) -> unindex(index, previous.get(field), id));
+        }
+        uniqueIndexes.forEach((field, index) -> {
+            if (document.get(field) instanceof String key) {
+                index.put(key, id);
+            }
+        });
+        documents.put(id, document);
+        modifications.incrementAndGet();
+        return document;
+    }
+
+    private static void unindex(Map<String, ObjectId> index, Object key, ObjectId id) {
+        if (key instanceof String value) {
+            index.remove(value, id);
+        }
+    }
+
+    // Mesmo formato da mensagem do servidor: os services descobrem o campo duplicado pelo nome do índice
+    private DuplicateKeyException duplicate(String field, String key) {
+        return new DuplicateKeyException("E11000 duplicate key error collection: " + name
+                + " index: " + field + " dup key: { " + field + ": \"" + key + "\" }");
+    }
+}
@@ -0,0 +1,261 @@
+package org.example.construconectaapinosql.repository.memory;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.example.construconectaapinosql.dto.DescontoUpdate;
+import org.example.construconectaapinosql.dto.DiscountHistogram;
+import org.example.construconectaapinosql.model.Desconto;
+import org.example.construconectaapinosql.repository.BulkWriteFailure;
+import org.example.construconectaapinosql.repository.DescontoRepository;
+import org.example.construconectaapinosql.repository.DocumentVersion;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * {@link DescontoRepository} do perfil {@code memory}. As buscas por cupom usam o índice de {@code cupom_key};
+ * as por trecho e por faixa de valor percorrem a coleção, como o regex e o filtro fariam no servidor.
+ */
+@Repository
+@Profile("memory")
+public class InMemoryDescontoRepository extends InMemoryRepository<Desconto> implements DescontoRepository {
+    private static final Comparator<Document> BY_VALOR = Comparator
+            .comparingDouble((Document voucher) -> ((Number) voucher.get("valor_desconto")).doubleValue())
+            .thenComparing(voucher -> voucher.getObjectId("_id"));
+
+    public InMemoryDescontoRepository(InMemoryStore store) {
+        super(store, Desconto.class);
+    }
+
+    @Override
+    public Optional<Desconto> findById(String id) {
+        return findByHexId(id);
+    }
+
+    // Mesma regra do LIKE do Spring Data: * vira curinga e o restante casa em qualquer posição
+    @Override
+    public List<Desconto> findByCupomLikeIgnoreCase(String cupom) {
+        Pattern pattern = Pattern.compile(Pattern.quote(cupom).replace("*", "\\E.*\\Q"), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        return findByCupomMatching(pattern, null);
+    }
+
+    @Override
+    public Optional<Desconto> findByCupomKey(String cupomKey) {
+        return Optional.ofNullable(collection.getByKey("cupom_key", cupomKey)).map(this::toEntity);
+    }
+
+    @Override
+    public List<Desconto> findByCupomKeyIn(Collection<String> cupomKeys) {
+        List<Desconto> found = new ArrayList<>(cupomKeys.size());
+        for (String cupomKey : cupomKeys) {
+            Document voucher = collection.getByKey("cupom_key", cupomKey);
+            if (voucher != null) {
+                found.add(toEntity(voucher));
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void deleteByCupom(String cupom) {
+        Document voucher = collection.getByKey("cupom_key", Desconto.normalizeCupom(cupom));
+        if (voucher != null && cupom.equals(voucher.get("cupom"))) {
+            collection.remove(voucher.getObjectId("_id"));
+        }
+    }
+
+    @Override
+    public long removeById(ObjectId id, DocumentVersion expected) {
+        return remove(collection.get(id), null, expected);
+    }
+
+    @Override
+    public long removeByCupomKey(String cupomKey, DocumentVersion expected) {
+        return remove(collection.getByKey("cupom_key", cupomKey), "cupom_key", expected);
+    }
+
+    @Override
+    public List<Desconto> findAllProjected(List<String> fields) {
+        return toEntities(collection.all(), fields);
+    }
+
+    @Override
+    public List<Desconto> findPageAfter(String afterId, int limit, List<String> fields) {
+        Collection<Document> vouchers = afterId == null ? collection.all() : collection.after(new ObjectId(afterId));
+        return toEntities(vouchers.stream().limit(limit).toList(), fields);
+    }
+
+    @Override
+    public void streamAll(List<String> fields, Consumer<Desconto> consumer) {
+        stream(collection.all(), fields, consumer);
+    }
+
+    @Override
+    public void streamCupomKeys(Consumer<String> consumer) {
+        for (Document voucher : collection.all()) {
+            if (voucher.get("cupom_key") instanceof String cupomKey) {
+                consumer.accept(cupomKey);
+            }
+        }
+    }
+
+    @Override
+    public long estimatedCount() {
+        return collection.size();
+    }
+
+    @Override
+    public List<Desconto> findByCupomContaining(String fragment, List<String> fields) {
+        return findByCupomMatching(Pattern.compile(Pattern.quote(fragment), Pattern.CASE_INSENSITIVE), fields);
+    }
+
+    @Override
+    public Desconto updateById(ObjectId id, DocumentVersion expected, DescontoUpdate changes) {
+        return update(collection.get(id), null, expected, changes);
+    }
+
+    @Override
+    public Desconto updateByCupomKey(String cupomKey, DocumentVersion expected, DescontoUpdate changes) {
+        return update(collection.getByKey("cupom_key", cupomKey), "cupom_key", expected, changes);
+    }
+
+    private Desconto update(Document voucher, String keyField, DocumentVersion expected, DescontoUpdate changes) {
+        if (voucher == null) {
+            return null;
+        }
+        Document updated = collection.update(voucher, stillMatches(voucher, keyField, expected), document -> {
+            incrementVersao(document);
+            if (changes.cupom() != null) {
+                document.put("cupom", changes.cupom());
+                document.put("cupom_key", Desconto.normalizeCupom(changes.cupom()));
+            }
+            if (changes.valorDesconto() != null) {
+                document.put("valor_desconto", changes.valorDesconto());
+                document.put("fracao_desconto", Desconto.toFracao(changes.valorDesconto()));
+            }
+            if (changes.maxUsos() != null) {
+                document.put("max_usos", changes.maxUsos());
+            }
+            if (changes.expiraEm() != null) {
+                document.put("expira_em", Date.from(changes.expiraEm()));
+            }
+        });
+        return updated == null ? null : toEntity(updated);
+    }
+
+    @Override
+    public Desconto redeem(String cupomKey, Instant now) {
+        Document redeemed = collection.update(collection.getByKey("cupom_key", cupomKey),
+                voucher -> {
+                    Date expiraEm = voucher.getDate("expira_em");
+                    Integer maxUsos = voucher.getInteger("max_usos");
+                    return (expiraEm == null || expiraEm.toInstant().isAfter(now))
+                            && (maxUsos == null || voucher.getInteger("usos", 0) < maxUsos);
+                },
+                voucher -> {
+                    voucher.put("usos", voucher.getInteger("usos", 0) + 1);
+                    incrementVersao(voucher);
+                });
+        return redeemed == null ? null : toEntity(redeemed);
+    }
+
+    @Override
+    public Map<Integer, BulkWriteFailure> insertUnordered(List<Desconto> vouchers) {
+        Map<Integer, BulkWriteFailure> failures = new HashMap<>();
+        for (int i = 0; i < vouchers.size(); i++) {
+            try {
+                insert(vouchers.get(i));
+            } catch (DuplicateKeyException e) {
+                failures.put(i, new BulkWriteFailure(true, e.getMessage()));
+            }
+        }
+        return failures;
+    }
+
+    @Override
+    public List<Desconto> findByValorRange(Double min, Double max, Sort.Direction direction, int limit, List<String> fields) {
+        List<Document> vouchers = new ArrayList<>();
+        for (Document voucher : collection.all()) {
+            if (voucher.get("valor_desconto") instanceof Number valor
+                    && (min == null || valor.doubleValue() >= min)
+                    && (max == null || valor.doubleValue() <= max)) {
+                vouchers.add(voucher);
+            }
+        }
+        vouchers.sort(direction.isAscending() ? BY_VALOR : BY_VALOR.reversed());
+        return toEntities(vouchers.subList(0, Math.min(limit, vouchers.size())), fields);
+    }
+
+    @Override
+    public List<Desconto> findFractionsAbove(double min) {
+        List<Desconto> found = new ArrayList<>();
+        for (Document voucher : collection.all()) {
+            if (voucher.get("valor_desconto") instanceof Number valor && valor.doubleValue() > min) {
+                found.add(toEntity(new Document("_id", voucher.get("_id"))
+                        .append("cupom", voucher.get("cupom"))
+                        .append("valor_desconto", voucher.get("fracao_desconto"))));
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public DiscountHistogram valueHistogram(List<Double> boundaries) {
+        long[] counts = new long[boundaries.size() - 1];
+        long outside = 0;
+        long total = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double sum = 0;
+        for (Document voucher : collection.all()) {
+            if (!(voucher.get("valor_desconto") instanceof Number number)) {
+                continue;
+            }
+            double valor = number.doubleValue();
+            total++;
+            min = Math.min(min, valor);
+            max = Math.max(max, valor);
+            sum += valor;
+            // Posição do maior limite <= valor: a faixa [limite, próximo limite)
+            int position = Collections.binarySearch(boundaries, valor);
+            int bucket = position >= 0 ? position : -position - 2;
+            if (bucket >= 0 && bucket < counts.length) {
+                counts[bucket]++;
+            } else {
+                outside++;
+            }
+        }
+        List<DiscountHistogram.Bucket> buckets = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            buckets.add(new DiscountHistogram.Bucket(boundaries.get(i), boundaries.get(i + 1), counts[i]));
+        }
+        if (total == 0) {
+            return new DiscountHistogram(buckets, outside, 0, null, null, null);
+        }
+        return new DiscountHistogram(buckets, outside, total, min, max, sum / total);
+    }
+
+    private List<Desconto> findByCupomMatching(Pattern pattern, List<String> fields) {
+        List<Document> found = new ArrayList<>();
+        for (Document voucher : collection.all()) {
+            if (voucher.get("cupom") instanceof String cupom && pattern.matcher(cupom).find()) {
+                found.add(voucher);
+            }
+        }
+        return toEntities(found, fields);
+    }
+}
@@ -0,0 +1,153 @@
+package org.example.construconectaapinosql.repository.memory;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.example.construconectaapinosql.repository.DocumentVersion;
+import org.springframework.data.repository.ListCrudRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Operações do {@link ListCrudRepository} comuns às duas coleções.
+ */
+abstract class InMemoryRepository<T> implements ListCrudRepository<T, ObjectId> {
+    protected final InMemoryStore store;
+    protected final InMemoryCollection collection;
+    private final Class<T> type;
+
+    protected InMemoryRepository(InMemoryStore store, Class<T> type) {
+        this.store = store;
+        this.collection = store.collection(type);
+        this.type = type;
+    }
+
+    protected T toEntity(Document document) {
+        return store.toEntity(type, document, null);
+    }
+
+    protected T toEntity(Document document, List<String> fields) {
+        return store.toEntity(type, document, fields);
+    }
+
+    protected List<T> toEntities(Collection<Document> documents, List<String> fields) {
+        List<T> entities = new ArrayList<>(documents.size());
+        for (Document document : documents) {
+            entities.add(toEntity(document, fields));
+        }
+        return entities;
+    }
+
+    protected void stream(Collection<Document> documents, List<String> fields, Consumer<T> consumer) {
+        for (Document document : documents) {
+            consumer.accept(toEntity(document, fields));
+        }
+    }
+
+    // Aceita o id em texto como o Spring Data: texto que não é ObjectId não encontra nada
+    protected Optional<T> findByHexId(String id) {
+        return id != null && ObjectId.isValid(id) ? findById(new ObjectId(id)) : Optional.empty();
+    }
+
+    // Condição das escritas por chave: o documento achado ainda tem a mesma chave e está na versão esperada
+    // (null = qualquer uma), como o filtro do findAndModify e do deleteOne. keyField null para as escritas por _id
+    protected static Predicate<Document> stillMatches(Document found, String keyField, DocumentVersion expected) {
+        Object key = keyField == null ? null : found.get(keyField);
+        return current -> (keyField == null || Objects.equals(key, current.get(keyField))) && DocumentVersion.matches(current, expected);
+    }
+
+    // $inc de versao: ausente conta como 0, como no servidor
+    protected static void incrementVersao(Document document) {
+        document.put("versao", document.get("versao") instanceof Number versao ? versao.longValue() + 1 : 1L);
+    }
+
+    // Retorna quantos documentos saíram
+    protected long remove(Document found, String keyField, DocumentVersion expected) {
+        if (found == null) {
+            return 0;
+        }
+        return collection.remove(found.getObjectId("_id"), stillMatches(found, keyField, expected)) == null ? 0 : 1;
+    }
+
+    @Override
+    public <S extends T> S save(S entity) {
+        Document saved = collection.save(store.toDocument(entity));
+        store.setId(entity, saved.getObjectId("_id"));
+        return entity;
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(entity -> saved.add(save(entity)));
+        return saved;
+    }
+
+    // Como o insert do MongoDB: falha com chave duplicada também quando o _id já existe
+    public <S extends T> S insert(S entity) {
+        Document inserted = collection.insert(store.toDocument(entity));
+        store.setId(entity, inserted.getObjectId("_id"));
+        return entity;
+    }
+
+    @Override
+    public Optional<T> findById(ObjectId id) {
+        Document document = id == null ? null : collection.get(id);
+        return document == null ? Optional.empty() : Optional.of(toEntity(document));
+    }
+
+    @Override
+    public boolean existsById(ObjectId id) {
+        return collection.get(id) != null;
+    }
+
+    @Override
+    public List<T> findAll() {
+        return toEntities(collection.all(), null);
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<ObjectId> ids) {
+        List<T> found = new ArrayList<>();
+        ids.forEach(id -> findById(id).ifPresent(found::add));
+        return found;
+    }
+
+    @Override
+    public long count() {
+        return collection.size();
+    }
+
+    @Override
+    public void deleteById(ObjectId id) {
+        collection.remove(id);
+    }
+
+    @Override
+    public void delete(T entity) {
+        ObjectId id = store.getId(entity);
+        if (id != null) {
+            collection.remove(id);
+        }
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends ObjectId> ids) {
+        ids.forEach(collection::remove);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        collection.clear();
+    }
+}
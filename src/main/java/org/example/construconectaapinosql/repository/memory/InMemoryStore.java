@@ -0,0 +1,173 @@
+package org.example.construconectaapinosql.repository.memory;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.bson.types.ObjectId;
+import org.example.construconectaapinosql.model.Administrador;
+import org.example.construconectaapinosql.model.Desconto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.convert.DefaultMongoTypeMapper;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Armazenamento do perfil {@code memory}: as coleções de cupons e administradores em memória, no lugar do MongoDB.
+ * Os documentos passam pelo mesmo conversor do Spring Data, então os nomes de campo e os tipos gravados são os do banco.
+ * <p>
+ * Com {@code app.memory.snapshot.path}, cada coleção é gravada em {@code <coleção>.jsonl} (JSON estendido, um
+ * documento por linha) a cada {@code app.memory.snapshot.interval} e ao desligar, e é recarregada na inicialização.
+ * O snapshot é feito sem parar as escritas: cada documento sai inteiro, mas escritas simultâneas podem ou não entrar.
+ */
+@Component
+@Profile("memory")
+public class InMemoryStore {
+    private static final Logger log = LoggerFactory.getLogger(InMemoryStore.class);
+    private static final JsonWriterSettings SNAPSHOT_JSON = JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED).build();
+
+    private final MongoMappingContext mappingContext;
+    private final MappingMongoConverter converter;
+    private final Map<String, InMemoryCollection> collections = new HashMap<>();
+    private final Map<String, Long> snapshotted = new HashMap<>();
+    private final Path snapshotDirectory;
+
+    public InMemoryStore(@Value("${app.memory.snapshot.path:}") String snapshotPath) {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        this.mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        this.converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        // Sem o campo _class: as coleções só guardam um tipo cada
+        converter.setTypeMapper(new DefaultMongoTypeMapper(null));
+        converter.afterPropertiesSet();
+
+        register(new InMemoryCollection(collectionName(Desconto.class), "cupom_key"));
+        register(new InMemoryCollection(collectionName(Administrador.class), "usuario_key", "email_key"));
+        this.snapshotDirectory = snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+    }
+
+    InMemoryCollection collection(Class<?> type) {
+        return collections.get(collectionName(type));
+    }
+
+    Document toDocument(Object entity) {
+        Document document = new Document();
+        converter.write(entity, document);
+        return document;
+    }
+
+    // fields null = documento inteiro; com campos, só eles e o _id, como a projeção do find
+    <T> T toEntity(Class<T> type, Document document, List<String> fields) {
+        if (fields == null) {
+            return converter.read(type, document);
+        }
+        Document projected = new Document("_id", document.get("_id"));
+        for (String field : fields) {
+            if (document.containsKey(field)) {
+                projected.put(field, document.get(field));
+            }
+        }
+        return converter.read(type, projected);
+    }
+
+    // O id gerado no insert volta para a entidade, como no MongoTemplate
+    void setId(Object entity, ObjectId id) {
+        MongoPersistentEntity<?> persistentEntity = mappingContext.getRequiredPersistentEntity(entity.getClass());
+        persistentEntity.getPropertyAccessor(entity).setProperty(persistentEntity.getRequiredIdProperty(), id);
+    }
+
+    ObjectId getId(Object entity) {
+        MongoPersistentEntity<?> persistentEntity = mappingContext.getRequiredPersistentEntity(entity.getClass());
+        return (ObjectId) persistentEntity.getPropertyAccessor(entity).getProperty(persistentEntity.getRequiredIdProperty());
+    }
+
+    @PostConstruct
+    public void load() {
+        if (snapshotDirectory == null) {
+            return;
+        }
+        for (InMemoryCollection collection : collections.values()) {
+            Path file = snapshotDirectory.resolve(collection.name() + ".jsonl");
+            if (!Files.exists(file)) {
+                continue;
+            }
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) {
+                        collection.save(Document.parse(line));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Não foi possível ler o snapshot " + file, e);
+            }
+            snapshotted.put(collection.name(), collection.modifications());
+            log.info("{} documentos de {} carregados de {}", collection.size(), collection.name(), file);
+        }
+    }
+
+    @PreDestroy
+    @Scheduled(initialDelayString = "${app.memory.snapshot.interval:PT1M}", fixedDelayString = "${app.memory.snapshot.interval:PT1M}")
+    public synchronized void snapshot() {
+        if (snapshotDirectory == null) {
+            return;
+        }
+        for (InMemoryCollection collection : collections.values()) {
+            long modifications = collection.modifications();
+            if (snapshotted.getOrDefault(collection.name(), -1L) == modifications) {
+                continue;
+            }
+            try {
+                write(collection);
+                snapshotted.put(collection.name(), modifications);
+            } catch (IOException e) {
+                log.error("Não foi possível gravar o snapshot de {}: {}", collection.name(), e.getMessage());
+            }
+        }
+    }
+
+    // Grava num arquivo temporário e troca de uma vez: uma queda no meio não corrompe o snapshot anterior
+    private void write(InMemoryCollection collection) throws IOException {
+        Files.createDirectories(snapshotDirectory);
+        Path file = snapshotDirectory.resolve(collection.name() + ".jsonl");
+        Path temporary = snapshotDirectory.resolve(collection.name() + ".jsonl.tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            for (Document document : collection.all()) {
+                writer.write(document.toJson(SNAPSHOT_JSON));
+                writer.newLine();
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void register(InMemoryCollection collection) {
+        collections.put(collection.name(), collection);
+    }
+
+    private String collectionName(Class<?> type) {
+        return mappingContext.getRequiredPersistentEntity(type).getCollection();
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.construconectaapinosql.security;
+
+import org.example.construconectaapinosql.model.Administrador;
+import org.example.construconectaapinosql.repository.AdministradorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cria o primeiro administrador a partir da configuração, já que /admin/add exige token.
+ * Só age quando a coleção está vazia; depois disso as propriedades podem ser removidas.
+ */
+@Component
+@Profile("!reactive")
+public class AdminBootstrap {
+    private static final Logger log = LoggerFactory.getLogger(AdminBootstrap.class);
+
+    private final AdministradorRepository administradorRepository;
+    private final PasswordHasher passwordHasher;
+    private final String usuario;
+    private final String email;
+    private final String senha;
+
+    public AdminBootstrap(
+            AdministradorRepository administradorRepository,
+            PasswordHasher passwordHasher,
+            @Value("${app.security.bootstrap.usuario:}") String usuario,
+            @Value("${app.security.bootstrap.email:}") String email,
+            @Value("${app.security.bootstrap.senha:}") String senha
+    ) {
+        this.administradorRepository = administradorRepository;
+        this.passwordHasher = passwordHasher;
+        this.usuario = usuario;
+        this.email = email;
+        this.senha = senha;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createFirstAdmin() {
+        if (usuario.isBlank() || senha.isBlank()) {
+            return;
+        }
+        try {
+            if (administradorRepository.count() > 0) {
+                return;
+            }
+            Administrador adm = new Administrador();
+            adm.setUsuario(usuario);
+            adm.setEmail(email.isBlank() ? null : email);
+            adm.setSenha(passwordHasher.hash(senha).join());
+            administradorRepository.save(adm);
+            log.info("Administrador inicial '{}' criado", usuario);
+        } catch (Exception e) {
+            log.error("Não foi possível criar o administrador inicial: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.construconectaapinosql.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+@Component
+@Profile("!reactive")
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    private final JwtService jwtService;
+    private final byte[] serviceToken;
+
+    public JwtAuthenticationFilter(JwtService jwtService, @Value("${app.security.service-token:}") String serviceToken) {
+        this.jwtService = jwtService;
+        this.serviceToken = serviceToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (ProtectedRoutes.requiresToken(request.getMethod(), request.getServletPath())) {
+            String token = ProtectedRoutes.bearerToken(request.getHeader(HttpHeaders.AUTHORIZATION));
+            if (token == null || !(isServiceToken(request, token) || jwtService.validate(token) != null)) {
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+                response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+                response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+                response.getWriter().write(ProtectedRoutes.UNAUTHORIZED_MESSAGE);
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    // Comparação em tempo constante; sem app.security.service-token só o JWT vale
+    private boolean isServiceToken(HttpServletRequest request, String token) {
+        return serviceToken.length > 0
+                && ProtectedRoutes.acceptsServiceToken(request.getMethod(), request.getServletPath())
+                && MessageDigest.isEqual(serviceToken, token.getBytes(StandardCharsets.UTF_8));
+    }
+}
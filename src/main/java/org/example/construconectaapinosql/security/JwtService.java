@@ -0,0 +1,68 @@
+package org.example.construconectaapinosql.security;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.example.construconectaapinosql.dto.LoginResponse;
+import org.example.construconectaapinosql.model.Administrador;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Emite e valida os tokens dos administradores. A chave e o parser são montados uma vez só;
+ * validar um token é só conferir a assinatura em memória, sem ir ao MongoDB.
+ */
+@Component
+public class JwtService {
+    private static final Logger log = LoggerFactory.getLogger(JwtService.class);
+
+    private final SecretKey key;
+    private final JwtParser parser;
+    private final Duration ttl;
+
+    public JwtService(
+            @Value("${app.security.jwt.secret:}") String secret,
+            @Value("${app.security.jwt.ttl:PT1H}") Duration ttl
+    ) {
+        if (secret.isBlank()) {
+            log.warn("app.security.jwt.secret não configurado: usando chave aleatória, os tokens deixam de valer ao reiniciar e não servem em outros nós");
+            this.key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        } else {
+            this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        }
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.ttl = ttl;
+    }
+
+    public LoginResponse issue(Administrador adm) {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(ttl);
+        String token = Jwts.builder()
+                .setSubject(adm.getId())
+                .claim("usuario", adm.getUsuario())
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(expiresAt))
+                .signWith(key)
+                .compact();
+        return new LoginResponse(token, "Bearer", expiresAt);
+    }
+
+    // Id do administrador dono do token, ou null se o token for inválido ou estiver expirado
+    public String validate(String token) {
+        try {
+            return parser.parseClaimsJws(token).getBody().getSubject();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.construconectaapinosql.security;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+@Component
+@Profile("reactive")
+public class JwtWebFilter implements WebFilter {
+    private final JwtService jwtService;
+
+    public JwtWebFilter(JwtService jwtService) {
+        this.jwtService = jwtService;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (ProtectedRoutes.requiresToken(request.getMethod().name(), request.getPath().pathWithinApplication().value())) {
+            String token = ProtectedRoutes.bearerToken(request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+            if (token == null || jwtService.validate(token) == null) {
+                ServerHttpResponse response = exchange.getResponse();
+                response.setStatusCode(HttpStatus.UNAUTHORIZED);
+                response.getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+                response.getHeaders().setContentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8));
+                DataBuffer body = response.bufferFactory().wrap(ProtectedRoutes.UNAUTHORIZED_MESSAGE.getBytes(StandardCharsets.UTF_8));
+                return response.writeWith(Mono.just(body));
+            }
+        }
+        return chain.filter(exchange);
+    }
+}
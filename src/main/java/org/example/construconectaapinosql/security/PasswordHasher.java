@@ -0,0 +1,70 @@
+package org.example.construconectaapinosql.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.mindrot.jbcrypt.BCrypt;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BCrypt num pool próprio e limitado: uma rajada de logins ocupa no máximo {@code threads} núcleos
+ * e, com a fila cheia, é recusada com {@link java.util.concurrent.RejectedExecutionException}
+ * em vez de prender as threads que atendem as outras requisições.
+ */
+@Component
+public class PasswordHasher implements DisposableBean {
+    private final int cost;
+    private final ThreadPoolExecutor executor;
+    // Comparado quando o administrador não existe, para o tempo de resposta não revelar isso
+    private final String dummyHash;
+
+    public PasswordHasher(
+            @Value("${app.security.bcrypt.cost:10}") int cost,
+            @Value("${app.security.bcrypt.threads:0}") int threads,
+            @Value("${app.security.bcrypt.queue-capacity:64}") int queueCapacity,
+            MeterRegistry meterRegistry
+    ) {
+        this.cost = cost;
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "bcrypt-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "bcrypt", Tags.empty()).bindTo(meterRegistry);
+        this.dummyHash = BCrypt.hashpw("", BCrypt.gensalt(cost));
+    }
+
+    public CompletableFuture<String> hash(String senha) {
+        return CompletableFuture.supplyAsync(() -> BCrypt.hashpw(senha, BCrypt.gensalt(cost)), executor);
+    }
+
+    // hash nulo (administrador inexistente ou sem senha) sempre resulta em false, no mesmo tempo
+    public CompletableFuture<Boolean> matches(String senha, String hash) {
+        return CompletableFuture.supplyAsync(() -> {
+            boolean valid = BCrypt.checkpw(senha, hash != null ? hash : dummyHash);
+            return hash != null && valid;
+        }, executor);
+    }
+
+    public static boolean isHash(String value) {
+        return value != null && value.length() == 60 && value.startsWith("$2");
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
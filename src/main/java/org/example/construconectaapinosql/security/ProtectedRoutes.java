@@ -0,0 +1,42 @@
+package org.example.construconectaapinosql.security;
+
+import java.util.Set;
+
+/**
+ * Regra comum aos filtros servlet e reativo: escritas em /admin e /discounts exigem token,
+ * exceto o login e o resgate, chamado pelo checkout. A busca em lote de cupons, feita pelo carrinho,
+ * aceita também o token de serviço no lugar do JWT.
+ */
+final class ProtectedRoutes {
+    static final String BEARER_PREFIX = "Bearer ";
+    static final String UNAUTHORIZED_MESSAGE = "Token de autenticação ausente ou inválido.";
+
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private ProtectedRoutes() {
+    }
+
+    static boolean requiresToken(String method, String path) {
+        if (!WRITE_METHODS.contains(method)) {
+            return false;
+        }
+        if (path.startsWith("/admin/")) {
+            return !path.equals("/admin/login");
+        }
+        if (path.startsWith("/discounts/")) {
+            return !(method.equals("POST") && path.endsWith("/redeem"));
+        }
+        return false;
+    }
+
+    static boolean acceptsServiceToken(String method, String path) {
+        return method.equals("POST") && path.equals("/discounts/lookup");
+    }
+
+    static String bearerToken(String authorization) {
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return null;
+        }
+        return authorization.substring(BEARER_PREFIX.length()).trim();
+    }
+}
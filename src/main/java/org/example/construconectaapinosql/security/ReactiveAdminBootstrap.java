@@ -0,0 +1,60 @@
+package org.example.construconectaapinosql.security;
+
+import org.example.construconectaapinosql.model.Administrador;
+import org.example.construconectaapinosql.reactive.repository.AdministradorReactiveRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * O mesmo que o {@link AdminBootstrap}, pelo repositório reativo.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveAdminBootstrap {
+    private static final Logger log = LoggerFactory.getLogger(ReactiveAdminBootstrap.class);
+
+    private final AdministradorReactiveRepository administradorRepository;
+    private final PasswordHasher passwordHasher;
+    private final String usuario;
+    private final String email;
+    private final String senha;
+
+    public ReactiveAdminBootstrap(
+            AdministradorReactiveRepository administradorRepository,
+            PasswordHasher passwordHasher,
+            @Value("${app.security.bootstrap.usuario:}") String usuario,
+            @Value("${app.security.bootstrap.email:}") String email,
+            @Value("${app.security.bootstrap.senha:}") String senha
+    ) {
+        this.administradorRepository = administradorRepository;
+        this.passwordHasher = passwordHasher;
+        this.usuario = usuario;
+        this.email = email;
+        this.senha = senha;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createFirstAdmin() {
+        if (usuario.isBlank() || senha.isBlank()) {
+            return;
+        }
+        administradorRepository.count()
+                .filter(count -> count == 0)
+                .flatMap(empty -> Mono.fromFuture(() -> passwordHasher.hash(senha)))
+                .flatMap(hash -> {
+                    Administrador adm = new Administrador();
+                    adm.setUsuario(usuario);
+                    adm.setEmail(email.isBlank() ? null : email);
+                    adm.setSenha(hash);
+                    return administradorRepository.save(adm);
+                })
+                .subscribe(saved -> log.info("Administrador inicial '{}' criado", usuario),
+                        e -> log.error("Não foi possível criar o administrador inicial: {}", e.getMessage()));
+    }
+}
@@ -1,84 +1,245 @@
 package org.example.construconectaapinosql.service;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.bson.types.ObjectId;
+import org.example.construconectaapinosql.cache.CollectionVersions;
+import org.example.construconectaapinosql.cache.SingleFlight;
+import org.example.construconectaapinosql.config.PaginationSettings;
+import org.example.construconectaapinosql.dto.AdministradorUpdate;
+import org.example.construconectaapinosql.dto.CursorPage;
+import org.example.construconectaapinosql.exception.AlreadyExistsException;
+import org.example.construconectaapinosql.exception.NotFoundException;
+import org.example.construconectaapinosql.exception.PreconditionFailedException;
+import org.example.construconectaapinosql.jfr.DeleteEvent;
+import org.example.construconectaapinosql.jfr.LookupEvent;
+import org.example.construconectaapinosql.jfr.SaveEvent;
+import org.example.construconectaapinosql.jfr.ServiceEvent;
 import org.example.construconectaapinosql.model.Administrador;
 import org.example.construconectaapinosql.repository.AdministradorRepository;
+import org.example.construconectaapinosql.repository.DocumentVersion;
+import org.example.construconectaapinosql.security.PasswordHasher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
 @Service
+@Profile("!reactive")
+@Timed("app.service")
 public class AdministradorService {
+    private static final Map<String, String> PROJECTABLE_FIELDS = Map.of(
+            "usuario", "usuario",
+            "email", "email"
+    );
+    // O hash da senha nunca é lido nas listagens e buscas
+    private static final List<String> DEFAULT_FIELDS = List.of("usuario", "email", "versao");
+
     private final AdministradorRepository administradorRepository;
+    private final PaginationSettings paginationSettings;
+    private final PasswordHasher passwordHasher;
+    private final CollectionVersions collectionVersions;
+    // Buscas iguais e simultâneas viram uma consulta só; a chave inclui a projeção pedida
+    private final SingleFlight<ObjectId, Optional<Administrador>> lookupsById;
+    private final SingleFlight<LookupKey, List<Administrador>> lookupsByUsuario;
+    private final SingleFlight<LookupKey, List<Administrador>> lookupsByEmail;
 
     public AdministradorService(
-            AdministradorRepository administradorRepository
+            AdministradorRepository administradorRepository,
+            PaginationSettings paginationSettings,
+            PasswordHasher passwordHasher,
+            CollectionVersions collectionVersions,
+            MeterRegistry meterRegistry
     ) {
         this.administradorRepository = administradorRepository;
+        this.paginationSettings = paginationSettings;
+        this.passwordHasher = passwordHasher;
+        this.collectionVersions = collectionVersions;
+        this.lookupsById = new SingleFlight<>("administrador.id", meterRegistry);
+        this.lookupsByUsuario = new SingleFlight<>("administrador.usuario", meterRegistry);
+        this.lookupsByEmail = new SingleFlight<>("administrador.email", meterRegistry);
+    }
+
+    public String adminsETag() {
+        return collectionVersions.etag(CollectionVersions.ADMINISTRADOR);
+    }
+
+    public List<Administrador> findAllAdmins(String fields) {
+        return administradorRepository.findAllProjected(resolveFields(fields));
     }
 
-    public List<Administrador> findAllAdmins() {
-        return administradorRepository.findAll();
+    public CursorPage<Administrador> findAdminsPage(String next, Integer size, String fields) {
+        if (next != null && !ObjectId.isValid(next)) {
+            throw new IllegalArgumentException("Token de página inválido: " + next);
+        }
+        int limit = paginationSettings.resolveSize(size);
+        // Busca um item a mais só para saber se existe próxima página
+        List<Administrador> admins = administradorRepository.findPageAfter(next, limit + 1, resolveFields(fields));
+        if (admins.size() <= limit) {
+            return new CursorPage<>(admins, null);
+        }
+        List<Administrador> page = admins.subList(0, limit);
+        return new CursorPage<>(page, page.get(limit - 1).getId());
+    }
+
+    public Consumer<Consumer<Administrador>> streamAllAdmins(String fields) {
+        // Valida os campos já aqui, antes de a resposta começar a ser escrita
+        List<String> projection = resolveFields(fields);
+        return consumer -> administradorRepository.streamAll(projection, consumer);
     }
 
     @Transactional
     public Administrador saveAdmins(Administrador adm) {
-        boolean isUpdate = adm.getId() != null && administradorRepository.existsById(new ObjectId(adm.getId()));
-        validateUniqueFields(adm, isUpdate); // Validação de campos únicos, passando o estado de update
-        return administradorRepository.save(adm);
+        // Unicidade garantida pelos índices únicos de usuario_key e email_key: uma única ida ao banco. Só insere:
+        // um id repetido no corpo é 409, nunca substitui o administrador (o que zeraria a versao)
+        adm.setSenha(passwordHasher.hash(adm.getSenha()).join());
+        return applyWrite("save", adm.getUsuario(), () -> administradorRepository.insert(adm));
     }
 
+    // expected vem do If-Match: null altera qualquer versão
     @Transactional
-    public Administrador deleteAdminsById(ObjectId id) {
-        Administrador adm = findAdminsById(id);
-        administradorRepository.deleteById(id);
-        return adm;
+    public Administrador updateAdmin(ObjectId id, DocumentVersion expected, AdministradorUpdate changes) {
+        AdministradorUpdate hashed = hashSenha(changes);
+        return applyUpdate("updateById", id, expected, () -> administradorRepository.updateById(id, expected, hashed),
+                () -> administradorRepository.existsById(id));
     }
 
     @Transactional
-    public void deleteAdminsByEmail(String email) {
-        if (administradorRepository.findByEmailIgnoreCase(email).isEmpty()) {
-            throw new RuntimeException("Administrador nao encontrado.: [" + email + "]");
-        }
-        administradorRepository.deleteByEmail(email);
+    public Administrador updateAdminByUsuario(String usuario, DocumentVersion expected, AdministradorUpdate changes) {
+        AdministradorUpdate hashed = hashSenha(changes);
+        String usuarioKey = Administrador.normalizeKey(usuario);
+        return applyUpdate("updateByUsuario", usuarioKey, expected, () -> administradorRepository.updateByUsuarioKey(usuarioKey, expected, hashed),
+                () -> !administradorRepository.findByUsuarioKey(usuarioKey, DEFAULT_FIELDS).isEmpty());
     }
 
     @Transactional
-    public void deleteAdminsByUser(String user) {
-        if (administradorRepository.findByUsuarioIgnoreCase(user).isEmpty()) {
-            throw new RuntimeException("Administrador nao encontrado.: [" + user + "]");
-        }
-        administradorRepository.deleteByUsuario(user);
+    public Administrador updateAdminByEmail(String email, DocumentVersion expected, AdministradorUpdate changes) {
+        AdministradorUpdate hashed = hashSenha(changes);
+        String emailKey = Administrador.normalizeKey(email);
+        return applyUpdate("updateByEmail", emailKey, expected, () -> administradorRepository.updateByEmailKey(emailKey, expected, hashed),
+                () -> !administradorRepository.findByEmailKey(emailKey, DEFAULT_FIELDS).isEmpty());
     }
 
-    public Administrador findAdminsById(ObjectId id) {
-        return administradorRepository.findById(id).
-                orElseThrow(() -> new RuntimeException("Administrador não encontrado."));
+    private AdministradorUpdate hashSenha(AdministradorUpdate changes) {
+        if (changes.senha() == null) {
+            return changes;
+        }
+        return new AdministradorUpdate(changes.usuario(), changes.email(), passwordHasher.hash(changes.senha()).join());
     }
 
-    public List<Administrador> findByUsuarioIgnoreCase(String usuario) {
-        return administradorRepository.findByUsuarioIgnoreCase(usuario);
+    private Administrador applyUpdate(String operation, Object key, DocumentVersion expected, Supplier<Administrador> update,
+                                      BooleanSupplier exists) {
+        Administrador updated = applyWrite(operation, key, update);
+        if (updated == null) {
+            throw notWritten(expected, exists);
+        }
+        return updated;
     }
 
-    public List<Administrador> findByEmailIgnoreCase(String email) {
-        return administradorRepository.findByEmailIgnoreCase(email);
+    // Escrita que não casou com nada: sem If-Match, ou se o documento sumiu, é 404; se ele existe, mudou de versão
+    private static RuntimeException notWritten(DocumentVersion expected, BooleanSupplier exists) {
+        if (expected != null && exists.getAsBoolean()) {
+            return new PreconditionFailedException("O administrador foi alterado desde o ETag informado em If-Match.");
+        }
+        return new NotFoundException("Administrador não encontrado.");
     }
 
-    private void validateUniqueFields(Administrador adm, boolean isUpdate) {
-        // Se não for uma atualização ou o CPF for diferente do CPF existente, validar
-        if (!isUpdate || !administradorRepository.findById(adm.getId()).get().getUsuario().equals(adm.getUsuario())) {
-            if (!administradorRepository.findByUsuarioIgnoreCase(adm.getUsuario()).isEmpty()) {
-                throw new RuntimeException("Este usuário já existe.");
+    private Administrador applyWrite(String operation, Object key, Supplier<Administrador> write) {
+        SaveEvent event = new SaveEvent();
+        event.begin();
+        try {
+            Administrador written = write.get();
+            event.complete(ServiceEvent.ADMINISTRADOR, operation, key, written == null ? 0 : 1);
+            if (written != null) {
+                collectionVersions.bump(CollectionVersions.ADMINISTRADOR);
             }
+            return written;
+        } catch (DuplicateKeyException e) {
+            event.complete(ServiceEvent.ADMINISTRADOR, operation, key, 0);
+            String detail = e.getMessage() == null ? "" : e.getMessage();
+            String message = detail.contains("email_key") ? "Este e-mail já existe."
+                    : detail.contains("index: _id") ? "Já existe um administrador com este id."
+                    : "Este usuário já existe.";
+            throw new AlreadyExistsException(message, e);
         }
-        if (!isUpdate || !administradorRepository.findById(adm.getId()).get().getEmail().equals(adm.getEmail())) {
-            if (!administradorRepository.findByUsuarioIgnoreCase(adm.getEmail()).isEmpty()) {
-                throw new RuntimeException("Este e-mail já existe.");
-            }
+    }
+
+    @Transactional
+    public void deleteAdminsById(ObjectId id, DocumentVersion expected) {
+        applyDelete("deleteById", id, expected, () -> administradorRepository.removeById(id, expected),
+                () -> administradorRepository.existsById(id));
+    }
+
+    @Transactional
+    public void deleteAdminsByEmail(String email, DocumentVersion expected) {
+        String emailKey = Administrador.normalizeKey(email);
+        applyDelete("deleteByEmail", emailKey, expected, () -> administradorRepository.removeByEmailKey(emailKey, expected),
+                () -> !administradorRepository.findByEmailKey(emailKey, DEFAULT_FIELDS).isEmpty());
+    }
+
+    @Transactional
+    public void deleteAdminsByUser(String user, DocumentVersion expected) {
+        String usuarioKey = Administrador.normalizeKey(user);
+        applyDelete("deleteByUsuario", usuarioKey, expected, () -> administradorRepository.removeByUsuarioKey(usuarioKey, expected),
+                () -> !administradorRepository.findByUsuarioKey(usuarioKey, DEFAULT_FIELDS).isEmpty());
+    }
+
+    private void applyDelete(String operation, Object key, DocumentVersion expected, LongSupplier delete, BooleanSupplier exists) {
+        DeleteEvent event = new DeleteEvent();
+        event.begin();
+        long deleted = delete.getAsLong();
+        event.complete(ServiceEvent.ADMINISTRADOR, operation, key, (int) deleted);
+        if (deleted == 0) {
+            throw notWritten(expected, exists);
         }
+        collectionVersions.bump(CollectionVersions.ADMINISTRADOR);
+    }
+
+    public Administrador findAdminsById(ObjectId id) {
+        LookupEvent event = new LookupEvent();
+        event.begin();
+        Optional<Administrador> found = lookupsById.execute(id, () -> administradorRepository.findById(id));
+        event.complete(ServiceEvent.ADMINISTRADOR, "findById", id, found.isPresent() ? 1 : 0);
+        return found.orElseThrow(() -> new NotFoundException("Administrador não encontrado."));
+    }
+
+    public List<Administrador> findAdminsByUsuario(String usuario, String fields) {
+        String usuarioKey = Administrador.normalizeKey(usuario);
+        List<String> projection = resolveFields(fields);
+        LookupEvent event = new LookupEvent();
+        event.begin();
+        List<Administrador> admins = lookupsByUsuario.execute(new LookupKey(usuarioKey, projection),
+                () -> administradorRepository.findByUsuarioKey(usuarioKey, projection));
+        event.complete(ServiceEvent.ADMINISTRADOR, "findByUsuario", usuarioKey, admins.size());
+        return admins;
+    }
+
+    public List<Administrador> findAdminsByEmail(String email, String fields) {
+        String emailKey = Administrador.normalizeKey(email);
+        List<String> projection = resolveFields(fields);
+        LookupEvent event = new LookupEvent();
+        event.begin();
+        List<Administrador> admins = lookupsByEmail.execute(new LookupKey(emailKey, projection),
+                () -> administradorRepository.findByEmailKey(emailKey, projection));
+        event.complete(ServiceEvent.ADMINISTRADOR, "findByEmail", emailKey, admins.size());
+        return admins;
+    }
+
+    private static List<String> resolveFields(String fields) {
+        return FieldSelection.resolve(fields, PROJECTABLE_FIELDS, DEFAULT_FIELDS);
+    }
+
+    private record LookupKey(String value, List<String> fields) {
     }
 }
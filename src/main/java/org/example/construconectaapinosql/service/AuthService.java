@@ -0,0 +1,61 @@
+package org.example.construconectaapinosql.service;
+
+import io.micrometer.core.annotation.Timed;
+import org.bson.types.ObjectId;
+import org.example.construconectaapinosql.dto.AdministradorUpdate;
+import org.example.construconectaapinosql.dto.LoginResponse;
+import org.example.construconectaapinosql.model.Administrador;
+import org.example.construconectaapinosql.repository.AdministradorRepository;
+import org.example.construconectaapinosql.security.JwtService;
+import org.example.construconectaapinosql.security.PasswordHasher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+@Profile("!reactive")
+@Timed("app.service")
+public class AuthService {
+    private final AdministradorRepository administradorRepository;
+    private final PasswordHasher passwordHasher;
+    private final JwtService jwtService;
+
+    public AuthService(
+            AdministradorRepository administradorRepository,
+            PasswordHasher passwordHasher,
+            JwtService jwtService
+    ) {
+        this.administradorRepository = administradorRepository;
+        this.passwordHasher = passwordHasher;
+        this.jwtService = jwtService;
+    }
+
+    // A busca no MongoDB roda na thread da requisição; o bcrypt roda no pool do PasswordHasher.
+    // Vazio quando usuário ou senha não conferem
+    public CompletableFuture<Optional<LoginResponse>> login(String login, String senha) {
+        String key = Administrador.normalizeKey(login);
+        List<Administrador> found = login.contains("@")
+                ? administradorRepository.findByEmailKey(key, null)
+                : administradorRepository.findByUsuarioKey(key, null);
+        Administrador adm = found.isEmpty() ? null : found.get(0);
+        String stored = adm != null ? adm.getSenha() : null;
+
+        if (stored != null && !PasswordHasher.isHash(stored)) {
+            // Senha gravada em texto puro antes do bcrypt: confere e já troca pelo hash
+            if (!MessageDigest.isEqual(stored.getBytes(StandardCharsets.UTF_8), senha.getBytes(StandardCharsets.UTF_8))) {
+                return passwordHasher.matches(senha, null).thenApply(ignored -> Optional.empty());
+            }
+            return passwordHasher.hash(senha).thenApply(hash -> {
+                administradorRepository.updateById(new ObjectId(adm.getId()), null, new AdministradorUpdate(null, null, hash));
+                return Optional.of(jwtService.issue(adm));
+            });
+        }
+        return passwordHasher.matches(senha, stored)
+                .thenApply(valid -> valid ? Optional.of(jwtService.issue(adm)) : Optional.empty());
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.construconectaapinosql.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.example.construconectaapinosql.cache.CollectionVersions;
+import org.example.construconectaapinosql.cache.VoucherBloomFilter;
+import org.example.construconectaapinosql.dto.BulkImportResult;
+import org.example.construconectaapinosql.dto.BulkItemResult;
+import org.example.construconectaapinosql.model.Desconto;
+import org.example.construconectaapinosql.repository.BulkWriteFailure;
+import org.example.construconectaapinosql.repository.DescontoRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Importação em massa de cupons: lê o corpo (array JSON ou NDJSON) item a item com o parser de streaming
+ * do Jackson e grava em lotes com bulkWrite não ordenado, sem carregar o arquivo inteiro em memória.
+ */
+@Service
+@Profile("!reactive")
+@Timed("app.service")
+public class DescontoBulkService {
+    private final DescontoRepository descontoRepository;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int batchSize;
+    private final CollectionVersions collectionVersions;
+    private final VoucherBloomFilter voucherBloomFilter;
+
+    public DescontoBulkService(
+            DescontoRepository descontoRepository,
+            ObjectMapper objectMapper,
+            Validator validator,
+            @Value("${app.bulk.batch-size:1000}") int batchSize,
+            CollectionVersions collectionVersions,
+            VoucherBloomFilter voucherBloomFilter
+    ) {
+        this.descontoRepository = descontoRepository;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.collectionVersions = collectionVersions;
+        this.voucherBloomFilter = voucherBloomFilter;
+    }
+
+    public BulkImportResult importVouchers(InputStream body) throws IOException {
+        List<BulkItemResult> failures = new ArrayList<>();
+        List<Desconto> batch = new ArrayList<>(batchSize);
+        List<Integer> batchIndexes = new ArrayList<>(batchSize);
+        int total = 0;
+
+        // Aceita um array raiz ou objetos raiz em sequência (NDJSON); só um item fica em memória por vez
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                token = parser.nextToken();
+            }
+            while (token != null && token != JsonToken.END_ARRAY) {
+                int index = total++;
+                JsonNode node = parser.readValueAsTree();
+                token = parser.nextToken();
+                Desconto voucher;
+                try {
+                    voucher = objectMapper.treeToValue(node, Desconto.class);
+                } catch (JsonProcessingException e) {
+                    failures.add(new BulkItemResult(index, textOf(node), "invalido", e.getOriginalMessage()));
+                    continue;
+                }
+                Set<ConstraintViolation<Desconto>> violations = validator.validate(voucher);
+                if (!violations.isEmpty()) {
+                    failures.add(new BulkItemResult(index, voucher.getCupom(), "invalido", violations.stream()
+                            .map(ConstraintViolation::getMessage)
+                            .sorted()
+                            .collect(Collectors.joining("; "))));
+                    continue;
+                }
+                batch.add(voucher);
+                batchIndexes.add(index);
+                if (batch.size() == batchSize) {
+                    flush(batch, batchIndexes, failures);
+                }
+            }
+        }
+        flush(batch, batchIndexes, failures);
+        failures.sort(Comparator.comparingInt(BulkItemResult::index));
+        return new BulkImportResult(total, total - failures.size(), failures.size(), failures);
+    }
+
+    private void flush(List<Desconto> batch, List<Integer> batchIndexes, List<BulkItemResult> failures) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<Integer, BulkWriteFailure> errors;
+        try {
+            errors = descontoRepository.insertUnordered(batch);
+        } finally {
+            // Mesmo com falha parte do lote pode ter sido gravada; cupons recusados no filtro só custam um falso positivo
+            collectionVersions.bump(CollectionVersions.DESCONTO);
+            batch.forEach(voucher -> voucherBloomFilter.put(voucher.getCupomKey()));
+        }
+        errors.forEach((position, error) -> failures.add(new BulkItemResult(
+                batchIndexes.get(position),
+                batch.get(position).getCupom(),
+                error.duplicateKey() ? "duplicado" : "erro",
+                error.duplicateKey() ? "Cupom de desconto já existe." : error.message())));
+        batch.clear();
+        batchIndexes.clear();
+    }
+
+    private static String textOf(JsonNode node) {
+        JsonNode cupom = node.get("cupom");
+        return cupom != null && cupom.isTextual() ? cupom.asText() : null;
+    }
+}
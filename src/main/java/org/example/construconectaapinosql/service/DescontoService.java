@@ -1,80 +1,392 @@
 package org.example.construconectaapinosql.service;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.bson.types.ObjectId;
+import org.example.construconectaapinosql.cache.CollectionVersions;
+import org.example.construconectaapinosql.cache.SingleFlight;
+import org.example.construconectaapinosql.cache.VoucherBloomFilter;
+import org.example.construconectaapinosql.cache.VoucherCache;
+import org.example.construconectaapinosql.config.PaginationSettings;
+import org.example.construconectaapinosql.dto.CursorPage;
+import org.example.construconectaapinosql.dto.DescontoUpdate;
+import org.example.construconectaapinosql.dto.DiscountHistogram;
+import org.example.construconectaapinosql.dto.RedeemResult;
+import org.example.construconectaapinosql.exception.AlreadyExistsException;
+import org.example.construconectaapinosql.exception.NotFoundException;
+import org.example.construconectaapinosql.exception.PreconditionFailedException;
+import org.example.construconectaapinosql.jfr.AggregationEvent;
+import org.example.construconectaapinosql.jfr.DeleteEvent;
+import org.example.construconectaapinosql.jfr.LookupEvent;
+import org.example.construconectaapinosql.jfr.SaveEvent;
+import org.example.construconectaapinosql.jfr.ServiceEvent;
 import org.example.construconectaapinosql.model.Desconto;
 import org.example.construconectaapinosql.repository.DescontoRepository;
-import org.springframework.data.mongodb.core.MongoTemplate;
-import org.springframework.data.mongodb.core.aggregation.Aggregation;
-import org.springframework.data.mongodb.core.query.Criteria;
+import org.example.construconectaapinosql.repository.DocumentVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Service
+@Profile("!reactive")
+@Timed("app.service")
 public class DescontoService {
+    private static final Map<String, String> PROJECTABLE_FIELDS = Map.of(
+            "cupom", "cupom",
+            "valorDesconto", "valor_desconto",
+            "fracaoDesconto", "fracao_desconto",
+            "maxUsos", "max_usos",
+            "usos", "usos",
+            "expiraEm", "expira_em"
+    );
+
+    private static final List<Double> DEFAULT_HISTOGRAM_BOUNDARIES =
+            List.of(0.0, 10.0, 20.0, 30.0, 40.0, 50.0, 60.0, 70.0, 80.0, 90.0, 100.0);
+    private static final int MAX_HISTOGRAM_BOUNDARIES = 101;
+
     private final DescontoRepository descontoRepository;
-    private final MongoTemplate mongoTemplate;
+    private final VoucherCache voucherCache;
+    private final VoucherBloomFilter voucherBloomFilter;
+    private final PaginationSettings paginationSettings;
+    private final CollectionVersions collectionVersions;
+    private final int maxLookupCodes;
+    // Picos de checkout buscam o mesmo cupom ao mesmo tempo: buscas iguais simultâneas viram uma consulta só
+    private final SingleFlight<String, Optional<Desconto>> lookupsByCupom;
+    private final SingleFlight<ObjectId, Optional<Desconto>> lookupsById;
 
     public DescontoService(
             DescontoRepository descontoRepository,
-            MongoTemplate mongoTemplate
+            VoucherCache voucherCache,
+            VoucherBloomFilter voucherBloomFilter,
+            PaginationSettings paginationSettings,
+            CollectionVersions collectionVersions,
+            MeterRegistry meterRegistry,
+            @Value("${app.lookup.max-codes:100}") int maxLookupCodes
     ) {
         this.descontoRepository = descontoRepository;
-        this.mongoTemplate = mongoTemplate;
+        this.voucherCache = voucherCache;
+        this.voucherBloomFilter = voucherBloomFilter;
+        this.paginationSettings = paginationSettings;
+        this.collectionVersions = collectionVersions;
+        this.maxLookupCodes = maxLookupCodes;
+        this.lookupsByCupom = new SingleFlight<>("desconto.cupom", meterRegistry);
+        this.lookupsById = new SingleFlight<>("desconto.id", meterRegistry);
+    }
+
+    // Muda a cada escrita na coleção de cupons, feita por este nó ou vista pelo change stream
+    public String vouchersETag() {
+        return collectionVersions.etag(CollectionVersions.DESCONTO);
     }
 
-    public List<Desconto> findAllVouchers() {
-        return descontoRepository.findAll();
+    public List<Desconto> findAllVouchers(String fields) {
+        return descontoRepository.findAllProjected(resolveFields(fields));
+    }
+
+    public CursorPage<Desconto> findVouchersPage(String next, Integer size, String fields) {
+        if (next != null && !ObjectId.isValid(next)) {
+            throw new IllegalArgumentException("Token de página inválido: " + next);
+        }
+        int limit = paginationSettings.resolveSize(size);
+        // Busca um item a mais só para saber se existe próxima página
+        List<Desconto> vouchers = descontoRepository.findPageAfter(next, limit + 1, resolveFields(fields));
+        if (vouchers.size() <= limit) {
+            return new CursorPage<>(vouchers, null);
+        }
+        List<Desconto> page = vouchers.subList(0, limit);
+        return new CursorPage<>(page, page.get(limit - 1).getId());
+    }
+
+    public Consumer<Consumer<Desconto>> streamAllVouchers(String fields) {
+        // Valida os campos já aqui, antes de a resposta começar a ser escrita
+        List<String> projection = resolveFields(fields);
+        return consumer -> descontoRepository.streamAll(projection, consumer);
     }
 
     @Transactional
     public Desconto saveVouchers(Desconto voucher) {
-        boolean isUpdate = voucher.getId() != null && descontoRepository.existsById(new ObjectId(voucher.getId()));
-        validateUniqueFields(voucher, isUpdate); // Validação de campos únicos, passando o estado de update
-        return descontoRepository.save(voucher);
+        // Unicidade garantida pelo índice único de cupom_key: uma única ida ao banco. Só insere: um id repetido
+        // no corpo é 409, nunca substitui o cupom (o que zeraria usos e versao)
+        SaveEvent event = new SaveEvent();
+        event.begin();
+        Desconto saved;
+        try {
+            saved = descontoRepository.insert(voucher);
+        } catch (DuplicateKeyException e) {
+            event.complete(ServiceEvent.DESCONTO, "save", voucher.getCupomKey(), 0);
+            throw new AlreadyExistsException(e.getMessage() != null && e.getMessage().contains("index: _id")
+                    ? "Já existe um cupom de desconto com este id."
+                    : "Cupom de desconto já existe.", e);
+        }
+        event.complete(ServiceEvent.DESCONTO, "save", saved.getCupomKey(), 1);
+        collectionVersions.bump(CollectionVersions.DESCONTO);
+        voucherBloomFilter.put(saved.getCupomKey());
+        voucherCache.evictById(saved.getId());
+        return saved;
     }
 
+    // expected vem do If-Match: null altera qualquer versão
     @Transactional
-    public Desconto deleteVoucher(ObjectId id) {
-        Desconto voucher = findVouchersById(id);
-        descontoRepository.delete(voucher);
-        return voucher;
+    public Desconto updateVoucher(ObjectId id, DocumentVersion expected, DescontoUpdate changes) {
+        return applyUpdate("updateById", id, expected, () -> descontoRepository.updateById(id, expected, changes),
+                () -> descontoRepository.existsById(id));
     }
 
     @Transactional
-    public void deleteVoucherByVoucherName(String voucher) {
-        if (descontoRepository.findByCupomLikeIgnoreCase(voucher).isEmpty()) {
-            throw new RuntimeException("Cupom de desconto não encontrado.: [" + voucher + "]");
+    public Desconto updateVoucherByCupom(String cupom, DocumentVersion expected, DescontoUpdate changes) {
+        String cupomKey = Desconto.normalizeCupom(cupom);
+        return applyUpdate("updateByCupom", cupomKey, expected, () -> descontoRepository.updateByCupomKey(cupomKey, expected, changes),
+                () -> descontoRepository.findByCupomKey(cupomKey).isPresent());
+    }
+
+    private Desconto applyUpdate(String operation, Object key, DocumentVersion expected, Supplier<Desconto> update, BooleanSupplier exists) {
+        SaveEvent event = new SaveEvent();
+        event.begin();
+        Desconto updated;
+        try {
+            updated = update.get();
+        } catch (DuplicateKeyException e) {
+            event.complete(ServiceEvent.DESCONTO, operation, key, 0);
+            throw new AlreadyExistsException("Cupom de desconto já existe.", e);
+        }
+        event.complete(ServiceEvent.DESCONTO, operation, key, updated == null ? 0 : 1);
+        if (updated == null) {
+            throw notWritten(expected, exists);
         }
-        descontoRepository.deleteByCupom(voucher);
+        collectionVersions.bump(CollectionVersions.DESCONTO);
+        voucherBloomFilter.put(updated.getCupomKey());
+        // put também descarta a entrada do nome antigo quando o cupom foi renomeado
+        voucherCache.put(updated);
+        return updated;
+    }
+
+    @Transactional
+    public void deleteVoucher(ObjectId id, DocumentVersion expected) {
+        DeleteEvent event = new DeleteEvent();
+        event.begin();
+        long deleted = descontoRepository.removeById(id, expected);
+        event.complete(ServiceEvent.DESCONTO, "deleteById", id, (int) deleted);
+        if (deleted == 0) {
+            throw notWritten(expected, () -> descontoRepository.existsById(id));
+        }
+        collectionVersions.bump(CollectionVersions.DESCONTO);
+        voucherBloomFilter.markDeleted();
+        voucherCache.evictById(id.toHexString());
+    }
+
+    @Transactional
+    public void deleteVoucherByVoucherName(String voucher, DocumentVersion expected) {
+        String cupomKey = Desconto.normalizeCupom(voucher);
+        DeleteEvent event = new DeleteEvent();
+        event.begin();
+        long deleted = descontoRepository.removeByCupomKey(cupomKey, expected);
+        event.complete(ServiceEvent.DESCONTO, "deleteByCupom", cupomKey, (int) deleted);
+        if (deleted == 0) {
+            throw notWritten(expected, () -> descontoRepository.findByCupomKey(cupomKey).isPresent());
+        }
+        collectionVersions.bump(CollectionVersions.DESCONTO);
+        voucherBloomFilter.markDeleted();
+        voucherCache.evict(cupomKey);
+    }
+
+    // Escrita que não casou com nada: sem If-Match, ou se o documento sumiu, é 404; se ele existe, mudou de versão
+    private static RuntimeException notWritten(DocumentVersion expected, BooleanSupplier exists) {
+        if (expected != null && exists.getAsBoolean()) {
+            return new PreconditionFailedException("O cupom de desconto foi alterado desde o ETag informado em If-Match.");
+        }
+        return new NotFoundException("Cupom de desconto não encontrado.");
     }
 
     public Desconto findVouchersById(ObjectId id) {
-        return descontoRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Cupom de desconto não encontrado."));
+        LookupEvent event = new LookupEvent();
+        event.begin();
+        Optional<Desconto> found = lookupsById.execute(id, () -> descontoRepository.findById(id));
+        event.complete(ServiceEvent.DESCONTO, "findById", id, found.isPresent() ? 1 : 0);
+        return found.orElseThrow(() -> new NotFoundException("Cupom de desconto não encontrado."));
     }
 
     public List<Desconto> findByVoucherName(String voucher) {
-        return descontoRepository.findByCupomLikeIgnoreCase(voucher);
+        String cupomKey = Desconto.normalizeCupom(voucher);
+        LookupEvent event = new LookupEvent();
+        event.begin();
+        Desconto cached = voucherCache.get(cupomKey);
+        if (cached != null) {
+            event.complete(ServiceEvent.DESCONTO, "findByCupom", cupomKey, 1);
+            return List.of(cached);
+        }
+        // Cupom digitado errado ou tentativa de adivinhar: 404 sem ir ao banco
+        if (!voucherBloomFilter.mightContain(cupomKey)) {
+            event.complete(ServiceEvent.DESCONTO, "findByCupom", cupomKey, 0);
+            return List.of();
+        }
+        // Só a thread que fez a consulta grava no cache, e só se nada foi invalidado durante ela;
+        // as que esperaram recebem o mesmo resultado
+        Optional<Desconto> found = lookupsByCupom.execute(cupomKey, () -> {
+            long generation = voucherCache.generation();
+            Optional<Desconto> stored = descontoRepository.findByCupomKey(cupomKey);
+            stored.ifPresent(read -> voucherCache.putIfUnchanged(read, generation));
+            return stored;
+        });
+        event.complete(ServiceEvent.DESCONTO, "findByCupom", cupomKey, found.isPresent() ? 1 : 0);
+        return found.map(List::of).orElse(List.of());
+    }
+
+    // Várias buscas exatas numa só: cache e filtro de Bloom primeiro, o restante numa única consulta $in.
+    // Devolve cada cupom como veio -> cupom encontrado, ou null se não existe
+    public Map<String, Desconto> lookupVouchers(List<String> vouchers) {
+        if (vouchers.size() > maxLookupCodes) {
+            throw new IllegalArgumentException("Informe no máximo " + maxLookupCodes + " cupons por busca.");
+        }
+        LookupEvent event = new LookupEvent();
+        event.begin();
+        Map<String, Desconto> found = new LinkedHashMap<>();
+        // cupom_key -> cupons como vieram, que podem diferir só em caixa e espaços
+        Map<String, List<String>> pending = new HashMap<>();
+        for (String voucher : vouchers) {
+            if (voucher == null) {
+                throw new IllegalArgumentException("A lista não pode conter cupons nulos.");
+            }
+            if (found.containsKey(voucher)) {
+                continue;
+            }
+            String cupomKey = Desconto.normalizeCupom(voucher);
+            Desconto cached = voucherCache.get(cupomKey);
+            found.put(voucher, cached);
+            if (cached == null && voucherBloomFilter.mightContain(cupomKey)) {
+                pending.computeIfAbsent(cupomKey, key -> new ArrayList<>(1)).add(voucher);
+            }
+        }
+        if (!pending.isEmpty()) {
+            long generation = voucherCache.generation();
+            for (Desconto voucher : descontoRepository.findByCupomKeyIn(pending.keySet())) {
+                voucherCache.putIfUnchanged(voucher, generation);
+                for (String requested : pending.get(voucher.getCupomKey())) {
+                    found.put(requested, voucher);
+                }
+            }
+        }
+        event.complete(ServiceEvent.DESCONTO, "lookup", vouchers.size() + " cupons", found.size());
+        return found;
+    }
+
+    public RedeemResult redeemVoucher(String voucher) {
+        String cupomKey = Desconto.normalizeCupom(voucher);
+        if (!voucherBloomFilter.mightContain(cupomKey)) {
+            return new RedeemResult(RedeemResult.Status.NAO_ENCONTRADO, null);
+        }
+        Instant now = Instant.now();
+        SaveEvent event = new SaveEvent();
+        event.begin();
+        Desconto redeemed = descontoRepository.redeem(cupomKey, now);
+        event.complete(ServiceEvent.DESCONTO, "redeem", cupomKey, redeemed == null ? 0 : 1);
+        if (redeemed != null) {
+            collectionVersions.bump(CollectionVersions.DESCONTO);
+            voucherCache.put(redeemed);
+            return new RedeemResult(RedeemResult.Status.RESGATADO, redeemed);
+        }
+        // Resgate recusado: uma leitura extra só para dizer o motivo, fora do caminho de sucesso
+        long generation = voucherCache.generation();
+        Optional<Desconto> found = descontoRepository.findByCupomKey(cupomKey);
+        if (found.isEmpty()) {
+            voucherCache.evict(cupomKey);
+            return new RedeemResult(RedeemResult.Status.NAO_ENCONTRADO, null);
+        }
+        Desconto current = found.get();
+        voucherCache.putIfUnchanged(current, generation);
+        if (current.getExpiraEm() != null && !current.getExpiraEm().isAfter(now)) {
+            return new RedeemResult(RedeemResult.Status.EXPIRADO, current);
+        }
+        return new RedeemResult(RedeemResult.Status.ESGOTADO, current);
+    }
+
+    // Busca por trecho do cupom: regex sem âncora, não usa índice e varre a coleção inteira
+    public List<Desconto> searchByVoucherFragment(String fragment, String fields) {
+        List<String> projection = resolveFields(fields);
+        AggregationEvent event = new AggregationEvent();
+        event.begin();
+        List<Desconto> vouchers = descontoRepository.findByCupomContaining(fragment, projection);
+        event.complete(ServiceEvent.DESCONTO, "searchByFragment", fragment, vouchers.size());
+        return vouchers;
+    }
+
+    public Map<String, Long> voucherCacheStats() {
+        return voucherCache.stats();
     }
 
     public List<Desconto> findDiscountsWithPercentageOver10() {
-        Aggregation aggregation = Aggregation.newAggregation(
-                Aggregation.match(Criteria.where("valor_desconto").gt(10.0)),
-                Aggregation.project("cupom")
-                        .andExpression("valor_desconto / 100").as("valor_desconto")
-        );
-        return mongoTemplate.aggregate(aggregation, "desconto", Desconto.class).getMappedResults();
-    }
-
-    private void validateUniqueFields(Desconto voucher, boolean isUpdate) {
-        // Se não for uma atualização ou o CPF for diferente do CPF existente, validar
-        if (!isUpdate || !descontoRepository.findById(voucher.getId()).get().getCupom().equals(voucher.getCupom())) {
-            if (!descontoRepository.findByCupomLikeIgnoreCase(voucher.getCupom()).isEmpty()) {
-                throw new RuntimeException("Cupom de desconto já existe.");
+        AggregationEvent event = new AggregationEvent();
+        event.begin();
+        List<Desconto> vouchers = descontoRepository.findFractionsAbove(10.0);
+        event.complete(ServiceEvent.DESCONTO, "percentageOver10", null, vouchers.size());
+        return vouchers;
+    }
+
+    // Faixa de valorDesconto ordenada pelo índice de valor_desconto: lê só os documentos devolvidos
+    public List<Desconto> searchByValor(Double min, Double max, String sort, Integer limit, String fields) {
+        if (min != null && max != null && min > max) {
+            throw new IllegalArgumentException("O valor mínimo não pode ser maior que o máximo.");
+        }
+        Sort.Direction direction = switch (sort == null ? "asc" : sort.trim().toLowerCase(Locale.ROOT)) {
+            case "asc" -> Sort.Direction.ASC;
+            case "desc" -> Sort.Direction.DESC;
+            default -> throw new IllegalArgumentException("Ordem inválida: " + sort + ". Use asc ou desc.");
+        };
+        int size = paginationSettings.resolveSize(limit);
+        List<String> projection = resolveFields(fields);
+        AggregationEvent event = new AggregationEvent();
+        event.begin();
+        List<Desconto> vouchers = descontoRepository.findByValorRange(min, max, direction, size, projection);
+        event.complete(ServiceEvent.DESCONTO, "searchByValor", min + ".." + max, vouchers.size());
+        return vouchers;
+    }
+
+    // Limites das faixas separados por vírgula, em ordem crescente; sem eles, faixas de 10 em 10 de 0 a 100
+    public DiscountHistogram valueHistogram(String boundaries) {
+        if (boundaries == null || boundaries.isBlank()) {
+            return histogram(DEFAULT_HISTOGRAM_BOUNDARIES);
+        }
+        List<Double> parsed = new ArrayList<>();
+        for (String boundary : boundaries.split(",")) {
+            double value;
+            try {
+                value = Double.parseDouble(boundary.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Limite de faixa inválido: " + boundary.trim());
             }
+            if (!parsed.isEmpty() && value <= parsed.get(parsed.size() - 1)) {
+                throw new IllegalArgumentException("Os limites das faixas devem estar em ordem crescente, sem repetição.");
+            }
+            parsed.add(value);
+        }
+        if (parsed.size() < 2 || parsed.size() > MAX_HISTOGRAM_BOUNDARIES) {
+            throw new IllegalArgumentException("Informe de 2 a " + MAX_HISTOGRAM_BOUNDARIES + " limites de faixa.");
         }
+        return histogram(parsed);
     }
 
+    private DiscountHistogram histogram(List<Double> boundaries) {
+        AggregationEvent event = new AggregationEvent();
+        event.begin();
+        DiscountHistogram histogram = descontoRepository.valueHistogram(boundaries);
+        event.complete(ServiceEvent.DESCONTO, "valueHistogram", boundaries, boundaries.size() - 1);
+        return histogram;
+    }
+
+    private static List<String> resolveFields(String fields) {
+        return FieldSelection.resolve(fields, PROJECTABLE_FIELDS, null);
+    }
 }
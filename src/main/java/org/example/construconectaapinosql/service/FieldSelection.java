@@ -0,0 +1,30 @@
+package org.example.construconectaapinosql.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Traduz o parâmetro {@code fields=} (nomes da API separados por vírgula) para os campos do Mongo.
+ */
+final class FieldSelection {
+    private FieldSelection() {
+    }
+
+    static List<String> resolve(String fields, Map<String, String> allowed, List<String> defaults) {
+        if (fields == null || fields.isBlank()) {
+            return defaults;
+        }
+        List<String> resolved = new ArrayList<>();
+        for (String field : fields.split(",")) {
+            String mongoField = allowed.get(field.trim());
+            if (mongoField == null) {
+                throw new IllegalArgumentException("Campo '" + field.trim() + "' não é válido para projeção. Campos aceitos: " + allowed.keySet());
+            }
+            resolved.add(mongoField);
+        }
+        // Como o id, a versão vem sempre: é dela que sai o ETag do documento
+        resolved.add("versao");
+        return resolved;
+    }
+}
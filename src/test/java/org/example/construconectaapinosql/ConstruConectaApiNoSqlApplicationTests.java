@@ -2,8 +2,11 @@ package org.example.construconectaapinosql;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
+// Perfil memory: o contexto sobe sem MongoDB nem variáveis MONGODB_*, então o mvn test roda no CI sem banco
 @SpringBootTest
+@ActiveProfiles("memory")
 class ConstruConectaApiNoSqlApplicationTests {
 
     @Test
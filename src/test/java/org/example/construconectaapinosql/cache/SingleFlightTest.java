@@ -0,0 +1,105 @@
+package org.example.construconectaapinosql.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+    private static final int CALLERS = 8;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>("teste", meterRegistry);
+
+    @Test
+    void concurrentCallsForTheSameKeyShareOneQuery() throws Exception {
+        AtomicInteger queries = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("NATAL10", () -> {
+                queries.incrementAndGet();
+                await(release);
+                return "resultado";
+            })));
+        }
+        // Todas as chamadas já entraram: a primeira está na consulta e as outras esperando por ela
+        waitUntil(() -> shared() + leaders() == CALLERS);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("resultado");
+        }
+        executor.shutdown();
+        assertThat(queries.get()).isEqualTo(1);
+        assertThat(leaders()).isEqualTo(1);
+        assertThat(shared()).isEqualTo(CALLERS - 1);
+    }
+
+    @Test
+    void followersGetTheLeadersException() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<String> leader = executor.submit(() -> singleFlight.execute("NATAL10", () -> {
+            await(release);
+            throw new IllegalStateException("banco fora do ar");
+        }));
+        waitUntil(() -> leaders() == 1);
+        Future<String> follower = executor.submit(() -> singleFlight.execute("NATAL10", () -> "não deveria rodar"));
+        waitUntil(() -> shared() == 1);
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalStateException.class)
+                .hasRootCauseMessage("banco fora do ar");
+        executor.shutdown();
+    }
+
+    @Test
+    void differentKeysAndLaterCallsRunTheirOwnQuery() {
+        AtomicInteger queries = new AtomicInteger();
+
+        singleFlight.execute("NATAL10", () -> "a" + queries.incrementAndGet());
+        singleFlight.execute("PASCOA10", () -> "b" + queries.incrementAndGet());
+
+        assertThat(singleFlight.execute("NATAL10", () -> "c" + queries.incrementAndGet())).isEqualTo("c3");
+        assertThat(shared()).isZero();
+    }
+
+    private double leaders() {
+        return meterRegistry.get("app.single-flight.calls").tag("result", "leader").counter().count();
+    }
+
+    private double shared() {
+        return meterRegistry.get("app.single-flight.calls").tag("result", "shared").counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
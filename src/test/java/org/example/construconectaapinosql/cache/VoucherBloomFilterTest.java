@@ -0,0 +1,113 @@
+package org.example.construconectaapinosql.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.construconectaapinosql.config.PaginationSettings;
+import org.example.construconectaapinosql.model.Desconto;
+import org.example.construconectaapinosql.repository.memory.InMemoryDescontoRepository;
+import org.example.construconectaapinosql.repository.memory.InMemoryStore;
+import org.example.construconectaapinosql.service.DescontoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VoucherBloomFilterTest {
+    private InMemoryDescontoRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryDescontoRepository(new InMemoryStore(""));
+    }
+
+    @Test
+    void noFalseNegativeForLoadedOrWrittenVouchers() {
+        repository.save(voucher("CARREGADO"));
+        VoucherBloomFilter filter = filter(true);
+        filter.rebuild();
+
+        for (int i = 0; i < 500; i++) {
+            filter.put("NOVO" + i);
+        }
+
+        assertThat(filter.mightContain("CARREGADO")).isTrue();
+        for (int i = 0; i < 500; i++) {
+            assertThat(filter.mightContain("NOVO" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void unknownVoucherIsAbsentAfterLoad() {
+        VoucherBloomFilter filter = filter(true);
+        filter.rebuild();
+
+        assertThat(filter.mightContain("NUNCA-CRIADO")).isFalse();
+    }
+
+    @Test
+    void disabledFilterNeverAnswersAbsent() {
+        VoucherBloomFilter filter = filter(false);
+        filter.rebuild();
+
+        assertThat(filter.mightContain("NUNCA-CRIADO")).isTrue();
+    }
+
+    @Test
+    void closedChangeStreamTurnsTheFilterOff() {
+        AtomicBoolean streamOpen = new AtomicBoolean(true);
+        VoucherBloomFilter filter = filter(true);
+        filter.watchPeerWrites(streamOpen::get);
+        filter.rebuild();
+        assertThat(filter.mightContain("NUNCA-CRIADO")).isFalse();
+
+        // Outro nó pode ter criado o cupom sem que o evento chegasse aqui
+        streamOpen.set(false);
+
+        assertThat(filter.mightContain("NUNCA-CRIADO")).isTrue();
+    }
+
+    @Test
+    void loadBeforeChangeStreamOpensIsReloadedOnce() throws InterruptedException {
+        AtomicBoolean streamOpen = new AtomicBoolean(false);
+        VoucherBloomFilter filter = filter(true);
+        filter.watchPeerWrites(streamOpen::get);
+        filter.rebuild();
+        // Criado em outro nó entre a carga e a abertura do change stream: nenhum evento o traria
+        repository.save(voucher("DE-OUTRO-NO"));
+        streamOpen.set(true);
+
+        assertThat(filter.mightContain("DE-OUTRO-NO")).isTrue();
+        assertThat(filter.mightContain("NUNCA-CRIADO")).isTrue();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (filter.mightContain("NUNCA-CRIADO") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(filter.mightContain("NUNCA-CRIADO")).isFalse();
+        assertThat(filter.mightContain("DE-OUTRO-NO")).isTrue();
+    }
+
+    @Test
+    void voucherSavedAfterLoadIsFoundByName() {
+        VoucherBloomFilter filter = filter(true);
+        filter.rebuild();
+        DescontoService service = new DescontoService(repository, new VoucherCache(100), filter, new PaginationSettings(100, 1000),
+                new CollectionVersions(), new SimpleMeterRegistry(), 100);
+
+        service.saveVouchers(voucher("natal10"));
+
+        assertThat(service.findByVoucherName("Natal10")).extracting(Desconto::getCupom).containsExactly("natal10");
+    }
+
+    private VoucherBloomFilter filter(boolean enabled) {
+        return new VoucherBloomFilter(repository, new SimpleMeterRegistry(), enabled, 1000, 0.01);
+    }
+
+    private static Desconto voucher(String cupom) {
+        Desconto voucher = new Desconto();
+        voucher.setCupom(cupom);
+        voucher.setValorDesconto(10.0);
+        return voucher;
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.construconectaapinosql.cache;
+
+import org.bson.types.ObjectId;
+import org.example.construconectaapinosql.model.Desconto;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VoucherCacheTest {
+    private final VoucherCache cache = new VoucherCache(100);
+    private final ObjectId id = new ObjectId();
+
+    @Test
+    void readStartedBeforeAnEvictionIsNotCached() {
+        long generation = cache.generation();
+        // Cupom ainda não guardado: a invalidação por id não remove nada, mas invalida a leitura em andamento
+        cache.evictById(id.toHexString());
+
+        assertThat(cache.putIfUnchanged(voucher("NATAL10", 0), generation)).isFalse();
+        assertThat(cache.get("NATAL10")).isNull();
+        assertThat(cache.putIfUnchanged(voucher("NATAL10", 0), cache.generation())).isTrue();
+    }
+
+    @Test
+    void olderVersionNeverReplacesTheCachedOne() {
+        long generation = cache.generation();
+        // Renomeado e gravado no cache pela escrita enquanto a leitura do nome antigo estava em andamento
+        cache.put(voucher("NATAL20", 1));
+
+        assertThat(cache.putIfUnchanged(voucher("NATAL10", 0), generation)).isFalse();
+        assertThat(cache.get("NATAL10")).isNull();
+        assertThat(cache.get("NATAL20").getVersao()).isEqualTo(1);
+    }
+
+    private Desconto voucher(String cupom, long versao) {
+        Desconto voucher = new Desconto();
+        voucher.setId(id);
+        voucher.setCupom(cupom);
+        voucher.setValorDesconto(10.0);
+        ReflectionTestUtils.setField(voucher, "versao", versao);
+        return voucher;
+    }
+}
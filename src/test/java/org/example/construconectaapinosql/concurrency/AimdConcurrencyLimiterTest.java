@@ -0,0 +1,121 @@
+package org.example.construconectaapinosql.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AimdConcurrencyLimiterTest {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final long VERY_SLOW = TimeUnit.SECONDS.toNanos(3);
+
+    // Limite 10 entre 2 e 12, aceitável até 100 ms (2 s para as longas) e recuo pela metade
+    private final AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(10, 2, 12,
+            TimeUnit.MILLISECONDS.toNanos(100), TimeUnit.SECONDS.toNanos(2), 0.5);
+
+    @Test
+    void fastResponsesWithTheLimitInUseRaiseItByAboutOnePerWindow() {
+        fill(1);
+
+        int responses = 0;
+        while (limiter.limit() < 11) {
+            limiter.release(FAST, false, false);
+            assertThat(limiter.tryAcquire(1)).isTrue();
+            responses++;
+        }
+
+        // +1/limite por resposta: cerca de uma janela cheia (10 respostas) para subir 1
+        assertThat(responses).isBetween(10, 11);
+        assertThat(limiter.tryAcquire(1)).isTrue();
+        assertThat(limiter.tryAcquire(1)).isFalse();
+    }
+
+    @Test
+    void limitDoesNotGrowWhileMostlyIdle() {
+        for (int i = 0; i < 100; i++) {
+            assertThat(limiter.tryAcquire(1)).isTrue();
+            limiter.release(FAST, false, false);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(10);
+    }
+
+    @Test
+    void growthStopsAtMaxLimit() {
+        fill(1);
+        for (int i = 0; i < 1_000; i++) {
+            limiter.release(FAST, false, false);
+            limiter.tryAcquire(1);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(12);
+    }
+
+    @Test
+    void slowResponseMultipliesTheLimitByTheBackoffRatio() {
+        limiter.tryAcquire(1);
+        limiter.release(SLOW, false, false);
+        assertThat(limiter.limit()).isEqualTo(5);
+
+        assertThat(fill(1)).isEqualTo(5);
+    }
+
+    @Test
+    void failureBacksOffEvenWhenFast() {
+        limiter.tryAcquire(1);
+        limiter.release(FAST, true, false);
+
+        assertThat(limiter.limit()).isEqualTo(5);
+    }
+
+    @Test
+    void backoffStopsAtMinLimit() {
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire(1);
+            limiter.release(SLOW, false, false);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(2);
+        assertThat(fill(1)).isEqualTo(2);
+    }
+
+    @Test
+    void bulkResponsesAreMeasuredAgainstTheirOwnThreshold() {
+        limiter.tryAcquire(1);
+        limiter.release(SLOW, false, true);
+        assertThat(limiter.limit()).isEqualTo(10);
+
+        limiter.tryAcquire(1);
+        limiter.release(VERY_SLOW, false, true);
+        assertThat(limiter.limit()).isEqualTo(5);
+    }
+
+    @Test
+    void fastBulkResponsesAlsoRaiseTheLimit() {
+        fill(1);
+        for (int i = 0; i < 11; i++) {
+            limiter.release(SLOW, false, true);
+            limiter.tryAcquire(1);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(11);
+    }
+
+    @Test
+    void lowPriorityRequestsOnlyUseTheirShare() {
+        assertThat(fill(0.7)).isEqualTo(7);
+
+        assertThat(fill(1)).isEqualTo(3);
+        assertThat(limiter.inFlight()).isEqualTo(10);
+    }
+
+    private int fill(double share) {
+        int acquired = 0;
+        while (limiter.tryAcquire(share)) {
+            acquired++;
+        }
+        return acquired;
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.construconectaapinosql.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.construconectaapinosql.concurrency.ConcurrencyLimitFilter.RequestClass;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.PathContainer;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(
+            new ConcurrencyLimitProperties(true, 0.7, List.of("/admin/admins", "/discounts/bulk"),
+                    List.of("/discounts/lookup"), List.of()),
+            new SimpleMeterRegistry());
+
+    @Test
+    void unpagedListingIsBulk() {
+        assertThat(classify("GET", "/admin/admins", null, null)).isEqualTo(RequestClass.BULK);
+    }
+
+    @Test
+    void pagedListingIsRead() {
+        assertThat(classify("GET", "/admin/admins", "size", "50")).isEqualTo(RequestClass.READ);
+        assertThat(classify("GET", "/admin/admins", "next", "abc")).isEqualTo(RequestClass.READ);
+    }
+
+    @Test
+    void pageParametersDoNotTurnAnImportIntoARead() {
+        assertThat(classify("POST", "/discounts/bulk", "size", "50")).isEqualTo(RequestClass.BULK);
+    }
+
+    @Test
+    void otherRoutesAreClassifiedByMethod() {
+        assertThat(classify("GET", "/admin/admins/root", null, null)).isEqualTo(RequestClass.READ);
+        assertThat(classify("POST", "/admin/admins/root", null, null)).isEqualTo(RequestClass.WRITE);
+        assertThat(classify("POST", "/discounts/lookup", null, null)).isEqualTo(RequestClass.READ);
+    }
+
+    private RequestClass classify(String method, String path, String parameter, String value) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        if (parameter != null) {
+            request.addParameter(parameter, value);
+        }
+        return filter.classify(request, PathContainer.parsePath(path));
+    }
+}
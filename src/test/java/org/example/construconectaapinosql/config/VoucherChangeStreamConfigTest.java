@@ -0,0 +1,153 @@
+package org.example.construconectaapinosql.config;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.UpdateDescription;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.example.construconectaapinosql.cache.CollectionVersions;
+import org.example.construconectaapinosql.cache.VoucherBloomFilter;
+import org.example.construconectaapinosql.cache.VoucherCache;
+import org.example.construconectaapinosql.model.Desconto;
+import org.example.construconectaapinosql.repository.DescontoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListener;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VoucherChangeStreamConfigTest {
+    private final VoucherCache voucherCache = new VoucherCache(100);
+    private final CollectionVersions collectionVersions = new CollectionVersions();
+    private final VoucherBloomFilter voucherBloomFilter = new VoucherBloomFilter(
+            mock(DescontoRepository.class), new SimpleMeterRegistry(), true, 1000, 0.01);
+
+    private final MessageListener<ChangeStreamDocument<Document>, Document> listener =
+            VoucherChangeStreamConfig.voucherListener(voucherCache, voucherBloomFilter, collectionVersions);
+
+    @Test
+    void containerIsStartedWithTheContext() {
+        new ApplicationContextRunner()
+                .withBean(MongoTemplate.class, VoucherChangeStreamConfigTest::unreachableMongo)
+                .withBean(VoucherCache.class, () -> voucherCache)
+                .withBean(VoucherBloomFilter.class, () -> voucherBloomFilter)
+                .withBean(CollectionVersions.class, () -> collectionVersions)
+                .withUserConfiguration(VoucherChangeStreamConfig.class)
+                .run(context -> assertThat(context.getBean(MessageListenerContainer.class).isRunning()).isTrue());
+    }
+
+    @Test
+    void bloomFilterStaysOpenWhileTheSubscriptionIsNotActive() {
+        new ApplicationContextRunner()
+                .withBean(MongoTemplate.class, VoucherChangeStreamConfigTest::unreachableMongo)
+                .withBean(VoucherCache.class, () -> voucherCache)
+                .withBean(VoucherBloomFilter.class, () -> voucherBloomFilter)
+                .withBean(CollectionVersions.class, () -> collectionVersions)
+                .withUserConfiguration(VoucherChangeStreamConfig.class)
+                .run(context -> {
+                    voucherBloomFilter.rebuild();
+                    assertThat(voucherBloomFilter.mightContain("NUNCA-CRIADO")).isTrue();
+                });
+    }
+
+    @Test
+    void updateFromAnotherNodeEvictsCachedVoucher() {
+        Desconto voucher = voucher("VAIDE10");
+        voucherCache.put(voucher);
+        String etag = collectionVersions.etag(CollectionVersions.DESCONTO);
+
+        UpdateDescription update = new UpdateDescription(List.of(), new BsonDocument("usos", new BsonString("1")));
+        listener.onMessage(message(changeEvent("update", voucher.getId(), null, update)));
+
+        assertThat(voucherCache.get("VAIDE10")).isNull();
+        assertThat(collectionVersions.etag(CollectionVersions.DESCONTO)).isNotEqualTo(etag);
+    }
+
+    @Test
+    void renameFromAnotherNodeEvictsOldKeyAndFeedsBloomFilter() {
+        voucherBloomFilter.rebuild();
+        Desconto voucher = voucher("VAIDE10");
+        voucherCache.put(voucher);
+        assertThat(voucherBloomFilter.mightContain("VAIDE20")).isFalse();
+
+        UpdateDescription update = new UpdateDescription(List.of(), new BsonDocument("cupom_key", new BsonString("VAIDE20")));
+        listener.onMessage(message(changeEvent("update", voucher.getId(), null, update)));
+
+        assertThat(voucherCache.get("VAIDE10")).isNull();
+        assertThat(voucherBloomFilter.mightContain("VAIDE20")).isTrue();
+    }
+
+    @Test
+    void insertFromAnotherNodeFeedsBloomFilter() {
+        voucherBloomFilter.rebuild();
+        assertThat(voucherBloomFilter.mightContain("NOVO15")).isFalse();
+
+        listener.onMessage(message(changeEvent("insert", new ObjectId().toHexString(), new Document("cupom_key", "NOVO15"), null)));
+
+        assertThat(voucherBloomFilter.mightContain("NOVO15")).isTrue();
+    }
+
+    @Test
+    void dropEvictsEverything() {
+        voucherCache.put(voucher("VAIDE10"));
+        voucherCache.put(voucher("VAIDE20"));
+
+        listener.onMessage(message(changeEvent("drop", null, null, null)));
+
+        assertThat(voucherCache.size()).isZero();
+    }
+
+    // Sem MongoDB: os cursores falham em segundo plano e caem no tratador de erro, o container continua de pé
+    private static MongoTemplate unreachableMongo() {
+        MongoTemplate template = mock(MongoTemplate.class);
+        when(template.getConverter()).thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext()));
+        return template;
+    }
+
+    private static Desconto voucher(String cupom) {
+        Desconto voucher = new Desconto();
+        voucher.setId(new ObjectId());
+        voucher.setCupom(cupom);
+        voucher.setValorDesconto(10.0);
+        return voucher;
+    }
+
+    private static ChangeStreamDocument<Document> changeEvent(String operation, String id, Document fullDocument,
+                                                              UpdateDescription update) {
+        BsonDocument documentKey = id == null ? null : new BsonDocument("_id", new BsonObjectId(new ObjectId(id)));
+        return new ChangeStreamDocument<>(operation, new BsonDocument(), null, null, fullDocument, null,
+                documentKey, null, update, null, null, null, null, null);
+    }
+
+    private static Message<ChangeStreamDocument<Document>, Document> message(ChangeStreamDocument<Document> event) {
+        return new Message<>() {
+            @Override
+            public ChangeStreamDocument<Document> getRaw() {
+                return event;
+            }
+
+            @Override
+            public Document getBody() {
+                return event.getFullDocument();
+            }
+
+            @Override
+            public MessageProperties getProperties() {
+                return MessageProperties.builder().collectionName(CollectionVersions.DESCONTO).build();
+            }
+        };
+    }
+}
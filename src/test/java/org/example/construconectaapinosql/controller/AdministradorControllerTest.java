@@ -0,0 +1,113 @@
+package org.example.construconectaapinosql.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.construconectaapinosql.cache.CollectionVersions;
+import org.example.construconectaapinosql.config.PaginationSettings;
+import org.example.construconectaapinosql.model.Administrador;
+import org.example.construconectaapinosql.repository.DocumentVersion;
+import org.example.construconectaapinosql.repository.memory.InMemoryAdministradorRepository;
+import org.example.construconectaapinosql.repository.memory.InMemoryStore;
+import org.example.construconectaapinosql.security.PasswordHasher;
+import org.example.construconectaapinosql.service.AdministradorService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AdministradorControllerTest {
+    private InMemoryAdministradorRepository repository;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryAdministradorRepository(new InMemoryStore(""));
+        AdministradorService service = new AdministradorService(repository, new PaginationSettings(100, 1000),
+                new PasswordHasher(4, 1, 64, new SimpleMeterRegistry()), new CollectionVersions(), new SimpleMeterRegistry());
+        service.saveAdmins(admin("Bob", "bob@x.com"));
+        LocalValidatorFactoryBean validator = new LocalValidatorFactoryBean();
+        validator.afterPropertiesSet();
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new AdministradorController(service, null, validator, new ObjectMapper()))
+                .setControllerAdvice(new ApiExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void deleteByEmailIgnoresCase() throws Exception {
+        mockMvc.perform(delete("/admin/deleteByEmail/BOB@x.com"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+
+        assertThat(repository.count()).isZero();
+    }
+
+    @Test
+    void deleteByUserIgnoresCase() throws Exception {
+        mockMvc.perform(delete("/admin/deleteByUser/bob"))
+                .andExpect(status().isOk());
+
+        assertThat(repository.count()).isZero();
+    }
+
+    @Test
+    void deleteById() throws Exception {
+        Administrador saved = repository.findByUsuarioKey("bob", null).get(0);
+
+        mockMvc.perform(delete("/admin/delete/" + saved.getId()))
+                .andExpect(status().isOk());
+
+        assertThat(repository.count()).isZero();
+    }
+
+    @Test
+    void deleteOfUnknownAdminIs404() throws Exception {
+        mockMvc.perform(delete("/admin/deleteByEmail/outro@x.com")).andExpect(status().isNotFound());
+        mockMvc.perform(delete("/admin/deleteByUser/outro")).andExpect(status().isNotFound());
+
+        assertThat(repository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void deleteByEmailChecksIfMatch() throws Exception {
+        Administrador saved = repository.findByUsuarioKey("bob", null).get(0);
+        DocumentVersion current = DocumentVersion.of(saved.getId(), saved.getVersao());
+        String stale = new DocumentVersion(current.id(), current.versao() + 1).etag(CollectionVersions.ADMINISTRADOR);
+
+        mockMvc.perform(delete("/admin/deleteByEmail/bob@x.com").header(HttpHeaders.IF_MATCH, stale))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/admin/deleteByUser/bob").header(HttpHeaders.IF_MATCH, current.etag(CollectionVersions.ADMINISTRADOR)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void addWithAnExistingIdIs409AndKeepsTheAdmin() throws Exception {
+        Administrador saved = repository.findByUsuarioKey("bob", null).get(0);
+
+        mockMvc.perform(post("/admin/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\": \"" + saved.getId() + "\", \"usuario\": \"Eve\", \"email\": \"eve@x.com\", \"senha\": \"admin123\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.detail").value("Já existe um administrador com este id."));
+
+        assertThat(repository.findAll()).extracting(Administrador::getUsuario).containsExactly("Bob");
+    }
+
+    private static Administrador admin(String usuario, String email) {
+        Administrador admin = new Administrador();
+        admin.setUsuario(usuario);
+        admin.setEmail(email);
+        admin.setSenha("admin123");
+        return admin;
+    }
+}
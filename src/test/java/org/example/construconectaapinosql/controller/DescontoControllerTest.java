@@ -0,0 +1,177 @@
+package org.example.construconectaapinosql.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.construconectaapinosql.cache.CollectionVersions;
+import org.example.construconectaapinosql.cache.VoucherBloomFilter;
+import org.example.construconectaapinosql.cache.VoucherCache;
+import org.example.construconectaapinosql.config.PaginationSettings;
+import org.example.construconectaapinosql.model.Desconto;
+import org.example.construconectaapinosql.repository.memory.InMemoryDescontoRepository;
+import org.example.construconectaapinosql.repository.memory.InMemoryStore;
+import org.example.construconectaapinosql.service.DescontoService;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class DescontoControllerTest {
+    private DescontoService service;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryDescontoRepository repository = new InMemoryDescontoRepository(new InMemoryStore(""));
+        VoucherBloomFilter bloomFilter = new VoucherBloomFilter(repository, new SimpleMeterRegistry(), true, 1000, 0.01);
+        bloomFilter.rebuild();
+        service = new DescontoService(repository, new VoucherCache(100), bloomFilter, new PaginationSettings(100, 1000),
+                new CollectionVersions(), new SimpleMeterRegistry(), 100);
+        LocalValidatorFactoryBean validator = new LocalValidatorFactoryBean();
+        validator.afterPropertiesSet();
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new DescontoController(service, null, validator, new ObjectMapper()))
+                .setControllerAdvice(new ApiExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void redeemReturnsTheUpdatedVoucher() throws Exception {
+        service.saveVouchers(voucher("NATAL10", 1, null));
+
+        mockMvc.perform(post("/discounts/NATAL10/redeem"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.usos").value(1));
+    }
+
+    @Test
+    void redeemOfUnknownVoucherIs404() throws Exception {
+        mockMvc.perform(post("/discounts/NADA/redeem"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.detail").value("Cupom de desconto não encontrado."));
+    }
+
+    @Test
+    void redeemOfExpiredVoucherIs410() throws Exception {
+        service.saveVouchers(voucher("VENCIDO", null, Instant.now().minus(1, ChronoUnit.DAYS)));
+
+        mockMvc.perform(post("/discounts/VENCIDO/redeem"))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.detail").value("Cupom de desconto expirado."));
+    }
+
+    @Test
+    void redeemOfSoldOutVoucherIs409() throws Exception {
+        service.saveVouchers(voucher("UNICO", 1, null));
+        mockMvc.perform(post("/discounts/UNICO/redeem")).andExpect(status().isOk());
+
+        mockMvc.perform(post("/discounts/UNICO/redeem"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.detail").value("Cupom de desconto esgotado."));
+    }
+
+    @Test
+    void findByIdAnswers304ForTheCurrentDocumentETag() throws Exception {
+        Desconto saved = service.saveVouchers(voucher("NATAL10", null, null));
+        String etag = mockMvc.perform(get("/discounts/findById/" + saved.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(etag).isEqualTo("\"desconto-" + saved.getId() + "-0\"");
+        mockMvc.perform(get("/discounts/findById/" + saved.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void patchWithCurrentIfMatchReturnsTheNewDocumentETag() throws Exception {
+        Desconto saved = service.saveVouchers(voucher("NATAL10", null, null));
+
+        mockMvc.perform(patch("/discounts/update/" + saved.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"desconto-" + saved.getId() + "-0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"valorDesconto\": 15}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"desconto-" + saved.getId() + "-1\""));
+    }
+
+    @Test
+    void secondPatchWithTheSameIfMatchIs412() throws Exception {
+        Desconto saved = service.saveVouchers(voucher("NATAL10", null, null));
+        String etag = "\"desconto-" + saved.getId() + "-0\"";
+        mockMvc.perform(patch("/discounts/updateByCupom/NATAL10").header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"valorDesconto\": 15}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(patch("/discounts/updateByCupom/NATAL10").header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"valorDesconto\": 20}"))
+                .andExpect(status().isPreconditionFailed());
+        assertThat(service.findVouchersById(new ObjectId(saved.getId())).getValorDesconto()).isEqualTo(15.0);
+    }
+
+    @Test
+    void ifMatchOfAnotherDocumentIs412() throws Exception {
+        Desconto saved = service.saveVouchers(voucher("NATAL10", null, null));
+        Desconto other = service.saveVouchers(voucher("PASCOA10", null, null));
+
+        mockMvc.perform(patch("/discounts/update/" + saved.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"desconto-" + other.getId() + "-0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"valorDesconto\": 15}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void deleteWithStaleIfMatchIs412AndKeepsTheVoucher() throws Exception {
+        Desconto saved = service.saveVouchers(voucher("NATAL10", null, null));
+        String stale = "\"desconto-" + saved.getId() + "-0\"";
+        service.redeemVoucher("NATAL10");
+
+        mockMvc.perform(delete("/discounts/delete/" + saved.getId()).header(HttpHeaders.IF_MATCH, stale))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/discounts/delete/" + saved.getId()).header(HttpHeaders.IF_MATCH, "\"desconto-" + saved.getId() + "-1\""))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/discounts/delete/" + saved.getId()).header(HttpHeaders.IF_MATCH, stale))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void addWithAnExistingIdIs409AndKeepsUsosAndVersao() throws Exception {
+        Desconto saved = service.saveVouchers(voucher("UNICO", 1, null));
+        mockMvc.perform(post("/discounts/UNICO/redeem")).andExpect(status().isOk());
+
+        mockMvc.perform(post("/discounts/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\": \"" + saved.getId() + "\", \"cupom\": \"OUTRO\", \"valorDesconto\": 50}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.detail").value("Já existe um cupom de desconto com este id."));
+
+        mockMvc.perform(post("/discounts/UNICO/redeem")).andExpect(status().isConflict());
+        mockMvc.perform(get("/discounts/findById/" + saved.getId()))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"desconto-" + saved.getId() + "-1\""))
+                .andExpect(jsonPath("$.cupom").value("UNICO"))
+                .andExpect(jsonPath("$.usos").value(1));
+    }
+
+    private static Desconto voucher(String cupom, Integer maxUsos, Instant expiraEm) {
+        Desconto voucher = new Desconto();
+        voucher.setCupom(cupom);
+        voucher.setValorDesconto(10.0);
+        voucher.setMaxUsos(maxUsos);
+        voucher.setExpiraEm(expiraEm);
+        return voucher;
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.construconectaapinosql.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GcraRateLimiterTest {
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    // Relógio manual: 10 permissões por segundo, uma a cada 100 ms, com rajada de 3
+    private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(1));
+    private final GcraRateLimiter limiter = new GcraRateLimiter(10, 3, clock::get);
+
+    @Test
+    void burstIsAllowedAndTheNextRequestWaitsOneInterval() {
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+
+        assertThat(limiter.tryAcquire("a")).isEqualTo(INTERVAL);
+    }
+
+    @Test
+    void permitComesBackExactlyAfterTheReturnedWait() {
+        drainBurst("a");
+        long wait = limiter.tryAcquire("a");
+
+        clock.addAndGet(wait - 1);
+        assertThat(limiter.tryAcquire("a")).isEqualTo(1);
+
+        clock.addAndGet(1);
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isEqualTo(INTERVAL);
+    }
+
+    @Test
+    void deniedRequestsDoNotPushTheNextPermitBack() {
+        drainBurst("a");
+        for (int i = 0; i < 50; i++) {
+            assertThat(limiter.tryAcquire("a")).isEqualTo(INTERVAL);
+        }
+
+        clock.addAndGet(INTERVAL);
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+    }
+
+    @Test
+    void steadyRateAtTheLimitIsNeverDenied() {
+        drainBurst("a");
+        for (int i = 0; i < 100; i++) {
+            clock.addAndGet(INTERVAL);
+            assertThat(limiter.tryAcquire("a")).isZero();
+        }
+    }
+
+    @Test
+    void idleClientGetsBackOnlyTheBurst() {
+        drainBurst("a");
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(1));
+
+        drainBurst("a");
+        assertThat(limiter.tryAcquire("a")).isEqualTo(INTERVAL);
+    }
+
+    @Test
+    void clientsHaveIndependentLimits() {
+        drainBurst("a");
+
+        assertThat(limiter.tryAcquire("b")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+    }
+
+    @Test
+    void evictIdleRemovesOnlyClientsWithAFullBucket() {
+        limiter.tryAcquire("parado");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        limiter.tryAcquire("ativo");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertThat(limiter.evictIdle(TimeUnit.SECONDS.toNanos(2))).isEqualTo(1);
+        assertThat(limiter.size()).isEqualTo(1);
+        assertThat(limiter.tryAcquire("ativo")).isZero();
+    }
+
+    @Test
+    void concurrentRequestsNeverExceedTheBurst() throws InterruptedException {
+        int threads = 16;
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int j = 0; j < 100; j++) {
+                        if (limiter.tryAcquire("a") == 0) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(allowed.get()).isEqualTo(3);
+    }
+
+    private void drainBurst(String client) {
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(client)).isZero();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.construconectaapinosql.security;
+
+import org.example.construconectaapinosql.model.Administrador;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtAuthenticationFilterTest {
+    private static final String SERVICE_TOKEN = "carrinho-0123456789abcdef";
+
+    private final JwtService jwtService = new JwtService("", Duration.ofHours(1));
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtService, SERVICE_TOKEN);
+
+    @Test
+    void lookupWithoutTokenIs401() throws Exception {
+        assertThat(status("POST", "/discounts/lookup", null)).isEqualTo(401);
+    }
+
+    @Test
+    void lookupAcceptsTheServiceTokenOrAnAdminToken() throws Exception {
+        assertThat(status("POST", "/discounts/lookup", SERVICE_TOKEN)).isEqualTo(200);
+        assertThat(status("POST", "/discounts/lookup", adminToken())).isEqualTo(200);
+        assertThat(status("POST", "/discounts/lookup", SERVICE_TOKEN + "x")).isEqualTo(401);
+    }
+
+    @Test
+    void serviceTokenIsOnlyAcceptedOnLookup() throws Exception {
+        assertThat(status("POST", "/discounts/add", SERVICE_TOKEN)).isEqualTo(401);
+        assertThat(status("DELETE", "/admin/delete/" + new ObjectId(), SERVICE_TOKEN)).isEqualTo(401);
+    }
+
+    @Test
+    void withoutServiceTokenConfiguredOnlyTheJwtIsAccepted() throws Exception {
+        JwtAuthenticationFilter jwtOnly = new JwtAuthenticationFilter(jwtService, "");
+
+        assertThat(status(jwtOnly, "POST", "/discounts/lookup", "")).isEqualTo(401);
+        assertThat(status(jwtOnly, "POST", "/discounts/lookup", adminToken())).isEqualTo(200);
+    }
+
+    @Test
+    void redeemStaysOpen() throws Exception {
+        assertThat(status("POST", "/discounts/NATAL10/redeem", null)).isEqualTo(200);
+    }
+
+    private int status(String method, String path, String token) throws Exception {
+        return status(filter, method, path, token);
+    }
+
+    private static int status(JwtAuthenticationFilter filter, String method, String path, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        if (token != null) {
+            request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    private String adminToken() {
+        Administrador admin = new Administrador();
+        admin.setId(new ObjectId());
+        admin.setUsuario("root");
+        return jwtService.issue(admin).token();
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.construconectaapinosql.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.construconectaapinosql.cache.CollectionVersions;
+import org.example.construconectaapinosql.config.PaginationSettings;
+import org.example.construconectaapinosql.dto.AdministradorUpdate;
+import org.example.construconectaapinosql.exception.NotFoundException;
+import org.example.construconectaapinosql.exception.PreconditionFailedException;
+import org.example.construconectaapinosql.model.Administrador;
+import org.example.construconectaapinosql.repository.DocumentVersion;
+import org.example.construconectaapinosql.repository.memory.InMemoryAdministradorRepository;
+import org.example.construconectaapinosql.repository.memory.InMemoryStore;
+import org.example.construconectaapinosql.security.PasswordHasher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdministradorServiceTest {
+    private final CollectionVersions collectionVersions = new CollectionVersions();
+    private InMemoryAdministradorRepository repository;
+    private AdministradorService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryAdministradorRepository(new InMemoryStore(""));
+        service = new AdministradorService(repository, new PaginationSettings(100, 1000),
+                new PasswordHasher(4, 1, 64, new SimpleMeterRegistry()), collectionVersions, new SimpleMeterRegistry());
+        service.saveAdmins(admin("Controo", "foo@x.com"));
+    }
+
+    @Test
+    void deleteByEmailIgnoresCase() {
+        String etag = collectionVersions.etag(CollectionVersions.ADMINISTRADOR);
+
+        service.deleteAdminsByEmail(" Foo@X.com", null);
+
+        assertThat(repository.findByEmailKey("foo@x.com", null)).isEmpty();
+        assertThat(collectionVersions.etag(CollectionVersions.ADMINISTRADOR)).isNotEqualTo(etag);
+    }
+
+    @Test
+    void deleteByUsuarioIgnoresCase() {
+        service.deleteAdminsByUser("CONTROO", null);
+
+        assertThat(repository.findByUsuarioKey("controo", null)).isEmpty();
+    }
+
+    @Test
+    void deleteOfMissingAdminKeepsETag() {
+        String etag = collectionVersions.etag(CollectionVersions.ADMINISTRADOR);
+
+        assertThatThrownBy(() -> service.deleteAdminsByEmail("outro@x.com", null)).isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> service.deleteAdminsByUser("outro", null)).isInstanceOf(NotFoundException.class);
+        assertThat(collectionVersions.etag(CollectionVersions.ADMINISTRADOR)).isEqualTo(etag);
+        assertThat(repository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void writesWithStaleVersionAre412() {
+        Administrador saved = repository.findByUsuarioKey("controo", null).get(0);
+        DocumentVersion current = DocumentVersion.of(saved.getId(), saved.getVersao());
+        service.updateAdminByEmail("foo@x.com", current, new AdministradorUpdate("Controo2", null, null));
+
+        assertThatThrownBy(() -> service.updateAdminByEmail("foo@x.com", current, new AdministradorUpdate("Controo3", null, null)))
+                .isInstanceOf(PreconditionFailedException.class);
+        assertThatThrownBy(() -> service.deleteAdminsByEmail("foo@x.com", current)).isInstanceOf(PreconditionFailedException.class);
+        assertThat(repository.findByEmailKey("foo@x.com", null)).extracting(Administrador::getUsuario).containsExactly("Controo2");
+
+        service.deleteAdminsByEmail("foo@x.com", new DocumentVersion(current.id(), current.versao() + 1));
+        assertThat(repository.count()).isZero();
+    }
+
+    private static Administrador admin(String usuario, String email) {
+        Administrador admin = new Administrador();
+        admin.setUsuario(usuario);
+        admin.setEmail(email);
+        admin.setSenha("admin123");
+        return admin;
+    }
+}
@@ -0,0 +1,178 @@
+package org.example.construconectaapinosql.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.example.construconectaapinosql.cache.CollectionVersions;
+import org.example.construconectaapinosql.cache.VoucherBloomFilter;
+import org.example.construconectaapinosql.cache.VoucherCache;
+import org.example.construconectaapinosql.config.PaginationSettings;
+import org.example.construconectaapinosql.dto.DescontoUpdate;
+import org.example.construconectaapinosql.dto.RedeemResult;
+import org.example.construconectaapinosql.model.Desconto;
+import org.example.construconectaapinosql.repository.memory.InMemoryDescontoRepository;
+import org.example.construconectaapinosql.repository.memory.InMemoryStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DescontoServiceTest {
+    private final CollectionVersions collectionVersions = new CollectionVersions();
+    private final VoucherCache voucherCache = new VoucherCache(100);
+    private InMemoryDescontoRepository repository;
+    private DescontoService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryDescontoRepository(new InMemoryStore(""));
+        VoucherBloomFilter bloomFilter = new VoucherBloomFilter(repository, new SimpleMeterRegistry(), true, 1000, 0.01);
+        bloomFilter.rebuild();
+        service = new DescontoService(repository, voucherCache, bloomFilter, new PaginationSettings(100, 1000),
+                collectionVersions, new SimpleMeterRegistry(), 100);
+    }
+
+    @Test
+    void redeemConsumesOneUse() {
+        service.saveVouchers(voucher("natal10", 2, null));
+        String etag = service.vouchersETag();
+
+        RedeemResult result = service.redeemVoucher(" Natal10 ");
+
+        assertThat(result.status()).isEqualTo(RedeemResult.Status.RESGATADO);
+        assertThat(result.voucher().getUsos()).isEqualTo(1);
+        assertThat(repository.findByCupomKey("NATAL10")).get().extracting(Desconto::getUsos).isEqualTo(1);
+        assertThat(service.vouchersETag()).isNotEqualTo(etag);
+    }
+
+    @Test
+    void redeemOfUnknownVoucherIsNotFound() {
+        assertThat(service.redeemVoucher("NADA").status()).isEqualTo(RedeemResult.Status.NAO_ENCONTRADO);
+    }
+
+    @Test
+    void redeemAfterLastUseIsSoldOut() {
+        service.saveVouchers(voucher("UNICO", 1, null));
+
+        assertThat(service.redeemVoucher("UNICO").status()).isEqualTo(RedeemResult.Status.RESGATADO);
+        RedeemResult result = service.redeemVoucher("UNICO");
+
+        assertThat(result.status()).isEqualTo(RedeemResult.Status.ESGOTADO);
+        assertThat(result.voucher().getUsos()).isEqualTo(1);
+    }
+
+    @Test
+    void redeemOfExpiredVoucherIsExpired() {
+        service.saveVouchers(voucher("VENCIDO", null, Instant.now().minus(1, ChronoUnit.DAYS)));
+        String etag = service.vouchersETag();
+
+        RedeemResult result = service.redeemVoucher("VENCIDO");
+
+        assertThat(result.status()).isEqualTo(RedeemResult.Status.EXPIRADO);
+        assertThat(repository.findByCupomKey("VENCIDO")).get().extracting(Desconto::getUsos).isNull();
+        assertThat(service.vouchersETag()).isEqualTo(etag);
+    }
+
+    @Test
+    void concurrentRedeemsNeverExceedMaxUsos() throws Exception {
+        service.saveVouchers(voucher("CORRIDA", 5, null));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<RedeemResult>> redeems = IntStream.range(0, 40)
+                    .<Callable<RedeemResult>>mapToObj(i -> () -> service.redeemVoucher("CORRIDA"))
+                    .toList();
+            List<RedeemResult.Status> statuses = executor.invokeAll(redeems).stream()
+                    .map(DescontoServiceTest::join)
+                    .map(RedeemResult::status)
+                    .toList();
+
+            assertThat(statuses).filteredOn(RedeemResult.Status.RESGATADO::equals).hasSize(5);
+            assertThat(statuses).filteredOn(RedeemResult.Status.ESGOTADO::equals).hasSize(35);
+            assertThat(repository.findByCupomKey("CORRIDA")).get().extracting(Desconto::getUsos).isEqualTo(5);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void deleteDuringLookupDoesNotCacheTheDeletedVoucher() throws Exception {
+        CountDownLatch read = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean first = new AtomicBoolean(true);
+        // A primeira busca lê o cupom e para antes de devolver, como uma consulta lenta
+        InMemoryDescontoRepository slowRepository = new InMemoryDescontoRepository(new InMemoryStore("")) {
+            @Override
+            public Optional<Desconto> findByCupomKey(String cupomKey) {
+                Optional<Desconto> found = super.findByCupomKey(cupomKey);
+                if (first.compareAndSet(true, false)) {
+                    read.countDown();
+                    awaitUninterruptibly(release);
+                }
+                return found;
+            }
+        };
+        VoucherCache cache = new VoucherCache(100);
+        DescontoService slowService = new DescontoService(slowRepository, cache,
+                new VoucherBloomFilter(slowRepository, new SimpleMeterRegistry(), false, 1000, 0.01),
+                new PaginationSettings(100, 1000), collectionVersions, new SimpleMeterRegistry(), 100);
+        Desconto saved = slowService.saveVouchers(voucher("natal10", null, null));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<List<Desconto>> lookup = executor.submit(() -> slowService.findByVoucherName("NATAL10"));
+        assertThat(read.await(5, TimeUnit.SECONDS)).isTrue();
+        slowService.deleteVoucher(new ObjectId(saved.getId()), null);
+        release.countDown();
+
+        assertThat(lookup.get(5, TimeUnit.SECONDS)).hasSize(1);
+        executor.shutdown();
+        assertThat(cache.get("NATAL10")).isNull();
+        assertThat(slowService.findByVoucherName("NATAL10")).isEmpty();
+    }
+
+    @Test
+    void lookupAfterUpdateSeesTheNewVersion() {
+        service.saveVouchers(voucher("natal10", null, null));
+        service.findByVoucherName("NATAL10");
+
+        service.updateVoucherByCupom("NATAL10", null, new DescontoUpdate(null, 25.0, null, null));
+
+        assertThat(service.findByVoucherName("NATAL10")).extracting(Desconto::getValorDesconto).containsExactly(25.0);
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static Desconto voucher(String cupom, Integer maxUsos, Instant expiraEm) {
+        Desconto voucher = new Desconto();
+        voucher.setCupom(cupom);
+        voucher.setValorDesconto(10.0);
+        voucher.setMaxUsos(maxUsos);
+        voucher.setExpiraEm(expiraEm);
+        return voucher;
+    }
+
+    private static <T> T join(Future<T> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}